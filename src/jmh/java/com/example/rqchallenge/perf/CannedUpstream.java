@@ -0,0 +1,100 @@
+package com.example.rqchallenge.perf;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Request factory that answers every call with the same in-memory body, so benchmarks measure our code and
+ * Jackson rather than the network.
+ */
+final class CannedUpstream implements ClientHttpRequestFactory {
+
+    private final byte[] body;
+
+    CannedUpstream(byte[] body) {
+        this.body = body;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        return new ClientHttpRequest() {
+            @Override
+            public ClientHttpResponse execute() {
+                return new CannedResponse(body);
+            }
+
+            @Override
+            public OutputStream getBody() {
+                return new ByteArrayOutputStream();
+            }
+
+            @Override
+            public String getMethodValue() {
+                return httpMethod.name();
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return requestHeaders;
+            }
+        };
+    }
+
+    private static final class CannedResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        CannedResponse(byte[] body) {
+            this.body = body;
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return HttpStatus.OK.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.entity.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of a single {@link Employee}, as read from and written for the by-id endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmployeeBindingBenchmark {
+
+    private Employee employee;
+    private byte[] employeeJson;
+
+    @Setup
+    public void setUp() {
+        employee = EmployeeDataset.employees(1).get(0);
+        employeeJson = EmployeeDataset.json(employee);
+    }
+
+    @Benchmark
+    public Employee readEmployee() throws IOException {
+        return EmployeeDataset.OBJECT_MAPPER.readValue(employeeJson, Employee.class);
+    }
+
+    @Benchmark
+    public byte[] writeEmployee() throws IOException {
+        return EmployeeDataset.OBJECT_MAPPER.writeValueAsBytes(employee);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic employee data shaped like the upstream payload, so runs at the same size are comparable.
+ */
+final class EmployeeDataset {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String[] FIRST_NAMES = {"Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod",
+            "Rhona", "Colleen", "Sonya", "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria"};
+    private static final String[] LAST_NAMES = {"Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler",
+            "Davidson", "Hurst", "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd"};
+
+    private EmployeeDataset() {
+    }
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + i;
+            employees.add(new Employee(String.valueOf(i), name, 20_000 + random.nextInt(980_000),
+                    String.valueOf(20 + random.nextInt(45)), ""));
+        }
+        return employees;
+    }
+
+    static EmployeeResponse response(List<Employee> employees) {
+        EmployeeResponse response = new EmployeeResponse();
+        response.setStatus("success");
+        response.setData(employees);
+        response.setMessage("Successfully! All records has been fetched.");
+        return response;
+    }
+
+    static byte[] json(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.cache.CachingEmployeeService;
+import com.example.rqchallenge.cache.EmployeeCacheProperties;
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.service.EmployeeService;
+import com.example.rqchallenge.service.EmployeeServiceImpl;
+import com.example.rqchallenge.upstream.UpstreamApiProperties;
+import com.example.rqchallenge.upstream.UpstreamResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read endpoints' service calls against a canned upstream payload. {@code upstream} buffers and binds the
+ * whole response per call, {@code streaming} reduces it off the token stream and {@code snapshot} answers from
+ * a warm {@link CachingEmployeeService}. Run with the gc profiler (the default in build.gradle) to get
+ * allocation rates alongside the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int employees;
+
+    @Param({"upstream", "streaming", "snapshot"})
+    public String path;
+
+    private EmployeeService service;
+    private CachingEmployeeService cache;
+    private String searchName;
+
+    @Setup
+    public void setUp() {
+        List<Employee> dataset = EmployeeDataset.employees(employees);
+        searchName = dataset.get(dataset.size() / 2).getEmployeeName();
+        byte[] body = EmployeeDataset.json(EmployeeDataset.response(dataset));
+        RestTemplate restTemplate = new RestTemplate(new CannedUpstream(body));
+
+        UpstreamApiProperties apiProperties = new UpstreamApiProperties();
+        apiProperties.setStreamingReads("streaming".equals(path));
+        EmployeeServiceImpl upstream = new EmployeeServiceImpl(restTemplate, EmployeeDataset.OBJECT_MAPPER,
+                apiProperties, new UpstreamResilienceProperties(), Runnable::run);
+        if ("snapshot".equals(path)) {
+            EmployeeCacheProperties cacheProperties = new EmployeeCacheProperties();
+            // Keep the snapshot fresh for the whole run so no refresh lands inside a measurement.
+            cacheProperties.setTtl(Duration.ofDays(1));
+            cacheProperties.setMaxStaleness(Duration.ofDays(1));
+            cache = new CachingEmployeeService(upstream, cacheProperties, Clock.systemUTC(), new SimpleMeterRegistry(),
+                    null);
+            cache.getAllEmployees();
+            service = cache;
+        } else {
+            service = upstream;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByNameSearch() {
+        return service.getEmployeesByNameSearch(searchName);
+    }
+
+    @Benchmark
+    public List<Employee> getTopHighestEarningEmployees() {
+        return service.getTopHighestEarningEmployees(10);
+    }
+
+    @Benchmark
+    public int getHighestSalaryOfEmployees() {
+        return service.getHighestSalaryOfEmployees();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.execution.VirtualThreads;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to complete a burst of concurrent blocking upstream waits on a Tomcat-sized platform pool versus
+ * virtual threads. The virtual mode needs a Java 21+ JVM; the jmh task drops it on older JVMs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200", "2000"})
+    public int concurrentCalls;
+
+    @Param({"20"})
+    public int upstreamLatencyMillis;
+
+    // Tomcat's default maxThreads.
+    @Param({"200"})
+    public int platformThreads;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? VirtualThreads.newThreadPerTaskExecutor().orElseThrow(() -> new IllegalStateException(
+                        "Virtual threads need Java 21+; run with -p mode=platform on this JVM"))
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int slowUpstreamWaits() throws Exception {
+        List<Future<Integer>> calls = new ArrayList<>(concurrentCalls);
+        for (int i = 0; i < concurrentCalls; i++) {
+            calls.add(executor.submit(() -> {
+                Thread.sleep(upstreamLatencyMillis);
+                return 1;
+            }));
+        }
+        int completed = 0;
+        for (Future<Integer> call : calls) {
+            completed += call.get();
+        }
+        return completed;
+    }
+}
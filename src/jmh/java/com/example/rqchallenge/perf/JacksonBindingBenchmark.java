@@ -0,0 +1,52 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.entity.EmployeeResponse;
+import com.example.rqchallenge.upstream.EmployeeStreamReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of the {@link EmployeeResponse} envelope both ways, and the same envelope read through
+ * {@link EmployeeStreamReader}. Single records are covered by {@link EmployeeBindingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JacksonBindingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int employees;
+
+    private EmployeeResponse response;
+    private byte[] responseJson;
+    private EmployeeStreamReader streamReader;
+
+    @Setup
+    public void setUp() {
+        response = EmployeeDataset.response(EmployeeDataset.employees(employees));
+        responseJson = EmployeeDataset.json(response);
+        streamReader = new EmployeeStreamReader(EmployeeDataset.OBJECT_MAPPER);
+    }
+
+    @Benchmark
+    public EmployeeResponse readEmployeeResponse() throws IOException {
+        return EmployeeDataset.OBJECT_MAPPER.readValue(responseJson, EmployeeResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeEmployeeResponse() throws IOException {
+        return EmployeeDataset.OBJECT_MAPPER.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public int streamEmployeeResponse(Blackhole blackhole) throws IOException {
+        return streamReader.read(new ByteArrayInputStream(responseJson), blackhole::consume);
+    }
+}
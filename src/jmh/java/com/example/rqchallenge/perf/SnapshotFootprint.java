@@ -0,0 +1,51 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeResponse;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Retained heap of an employee snapshot against the {@code List<Employee>} it is built from, measured with JOL by
+ * walking both object graphs. The list is bound from JSON as the upstream client binds it, so every employee holds
+ * its own strings. The snapshot total is followed by what each of its fields retains on its own (the columns, the
+ * orderings and the id and name indexes); objects shared between fields count towards each of them.
+ * <p>
+ * {@code ./gradlew snapshotFootprint --args='100000 1000000'}
+ */
+public final class SnapshotFootprint {
+
+    private SnapshotFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException, IllegalAccessException {
+        String[] sizes = args.length > 0 ? args : new String[]{"100000", "1000000"};
+        System.out.printf("%10s %14s %14s %10s %10s%n", "employees", "list bytes", "snapshot bytes", "list/emp",
+                "snap/emp");
+        for (String size : sizes) {
+            int employees = Integer.parseInt(size);
+            byte[] json = EmployeeDataset.json(EmployeeDataset.response(EmployeeDataset.employees(employees)));
+            List<Employee> list = EmployeeDataset.OBJECT_MAPPER.readValue(json, EmployeeResponse.class).getData();
+            EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, 0, list);
+
+            long listBytes = GraphLayout.parseInstance(list).totalSize();
+            long snapshotBytes = GraphLayout.parseInstance(snapshot).totalSize();
+            System.out.printf("%10d %14d %14d %10d %10d%n", employees, listBytes, snapshotBytes,
+                    listBytes / employees, snapshotBytes / employees);
+            for (Field field : EmployeeSnapshot.class.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object value = field.get(snapshot);
+                long bytes = value != null ? GraphLayout.parseInstance(value).totalSize() : 0;
+                System.out.printf("%12s%-14s %6d bytes/employee%n", "", field.getName(), bytes / employees);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.rqchallenge.perf;
+
+import com.example.rqchallenge.cache.EmployeeDelta;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.entity.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying a bulk write of {@code batchSize} deletes and creates to a snapshot, as one delta list or one delta at
+ * a time. With the gc profiler, {@code gc.alloc.rate.norm} shows what each approach copies per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SnapshotWriteBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int employees;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private EmployeeSnapshot snapshot;
+    private List<EmployeeDelta> deltas;
+
+    @Setup
+    public void setUp() {
+        List<Employee> dataset = EmployeeDataset.employees(employees);
+        snapshot = EmployeeSnapshot.of(1, 0, dataset);
+        deltas = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            if (i % 2 == 0) {
+                deltas.add(EmployeeDelta.deleted(dataset.get(i * (employees / batchSize)).getId()));
+            } else {
+                deltas.add(EmployeeDelta.created(new Employee(String.valueOf(employees + i), "Bulk Hire " + i,
+                        50_000 + i, "30", "")));
+            }
+        }
+    }
+
+    @Benchmark
+    public EmployeeSnapshot applyBatch() {
+        return snapshot.apply(deltas, 2);
+    }
+
+    @Benchmark
+    public EmployeeSnapshot applyOneByOne() {
+        EmployeeSnapshot current = snapshot;
+        for (EmployeeDelta delta : deltas) {
+            current = current.apply(delta, current.getVersion() + 1);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.rqchallenge.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the employee endpoints of a running instance with a weighted request mix and reports throughput and
+ * p50/p99/p999 latency per endpoint. Run it against the {@code simulator} profile to stay off the real upstream:
+ * <pre>
+ * ./gradlew bootRun --args='--spring.profiles.active=simulator'
+ * ./gradlew loadTest --args='--concurrency=64 --duration=60s --rate=2000'
+ * </pre>
+ * Options (defaults in brackets): --base-url [http://localhost:8080], --concurrency [32], --duration [30s],
+ * --warmup [5s], --rate [0], --ids [1000], --mix [all=1,search=4,by-id=10,highest=2,top=2].
+ * <p>
+ * With --rate above zero requests are issued on a fixed schedule and latency is measured from each request's
+ * intended start, so a stalled server is charged for the requests it delayed (no coordinated omission).
+ * With --rate=0 every worker sends back to back.
+ */
+public final class LoadHarness {
+
+    private static final String[] SEARCH_FRAGMENTS = {"kel", "nix", "win", "son", "fro", "ton", "ash"};
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final double rate;
+    private final int ids;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private int totalWeight;
+
+    private LoadHarness(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        this.durationNanos = parseDuration(options.getOrDefault("duration", "30s"));
+        this.warmupNanos = parseDuration(options.getOrDefault("warmup", "5s"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        this.ids = Integer.parseInt(options.getOrDefault("ids", "1000"));
+        for (String entry : options.getOrDefault("mix", "all=1,search=4,by-id=10,highest=2,top=2").split(",")) {
+            String[] parts = entry.split("=");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                endpoints.add(new Endpoint(parts[0].trim(), weight));
+                totalWeight += weight;
+            }
+        }
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("--mix selects no endpoints");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadHarness(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        // HttpURLConnection keeps only 5 idle connections per host by default.
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+        System.out.printf("Driving %s with %d workers for %d s after %d s warmup (%s)%n", baseUrl, concurrency,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                rate > 0 ? String.format("%.0f req/s", rate) : "closed loop");
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long periodNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        AtomicLong tickets = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (true) {
+                    long intendedStart;
+                    if (periodNanos > 0) {
+                        intendedStart = start + tickets.getAndIncrement() * periodNanos;
+                        long wait = intendedStart - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        intendedStart = System.nanoTime();
+                    }
+                    if (intendedStart >= end || Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    Endpoint endpoint = pick();
+                    boolean ok = send(endpoint);
+                    long finished = System.nanoTime();
+                    if (intendedStart >= measureFrom) {
+                        endpoint.record(TimeUnit.NANOSECONDS.toMicros(finished - intendedStart), ok);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        long grace = TimeUnit.MINUTES.toNanos(1);
+        if (!workers.awaitTermination(warmupNanos + durationNanos + grace, TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+        }
+        report((double) durationNanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private Endpoint pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private boolean send(Endpoint endpoint) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + endpoint.path()).openConnection();
+            connection.setConnectTimeout(2_000);
+            connection.setReadTimeout(30_000);
+            int status = connection.getResponseCode();
+            // Drain the body so the connection goes back to the keep-alive pool.
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            return status < 400;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return false;
+        }
+    }
+
+    private static void drain(InputStream body) throws IOException {
+        if (body == null) {
+            return;
+        }
+        try (InputStream in = body) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) >= 0) {
+                // discard
+            }
+        }
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%n%-10s %10s %8s %12s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Endpoint endpoint : endpoints) {
+            Histogram histogram = endpoint.latencies.getIntervalHistogram();
+            total.add(histogram);
+            totalErrors += endpoint.errors.get();
+            print(endpoint.name, histogram, endpoint.errors.get(), seconds);
+        }
+        print("total", total, totalErrors, seconds);
+    }
+
+    private static void print(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-10s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(),
+                errors, histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static long parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s")) {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        if (trimmed.endsWith("m")) {
+            return TimeUnit.MINUTES.toNanos(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        return TimeUnit.SECONDS.toNanos(Long.parseLong(trimmed));
+    }
+
+    private final class Endpoint {
+
+        private final String name;
+        private final int weight;
+        // Microseconds.
+        private final Recorder latencies = new Recorder(3);
+        private final AtomicLong errors = new AtomicLong();
+
+        Endpoint(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+            // Fails fast on an unknown name.
+            path();
+        }
+
+        String path() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (name) {
+                case "all":
+                    return "/employees";
+                case "search":
+                    return "/employees/search/" + SEARCH_FRAGMENTS[random.nextInt(SEARCH_FRAGMENTS.length)];
+                case "by-id":
+                    return "/employees/" + (1 + random.nextInt(ids));
+                case "highest":
+                    return "/employees/highest-salary";
+                case "top":
+                    return "/employees/top-10-highest-earning";
+                default:
+                    throw new IllegalArgumentException("Unknown endpoint in --mix: " + name);
+            }
+        }
+
+        void record(long micros, boolean ok) {
+            latencies.recordValue(Math.max(0, micros));
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
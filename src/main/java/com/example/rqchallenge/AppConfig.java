@@ -1,5 +1,14 @@
 package com.example.rqchallenge;
 
+import com.example.rqchallenge.service.EmployeeServiceImpl;
+import com.example.rqchallenge.upstream.AbortableClientHttpRequestFactory;
+import com.example.rqchallenge.upstream.ResilienceInterceptor;
+import com.example.rqchallenge.upstream.UpstreamMetricsInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -7,8 +16,31 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class AppConfig {
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, HttpClient upstreamHttpClient,
+                                     UpstreamMetricsInterceptor upstreamMetricsInterceptor,
+                                     ResilienceInterceptor resilienceInterceptor) {
+        return restTemplateBuilder
+                .requestFactory(() -> new AbortableClientHttpRequestFactory(upstreamHttpClient))
+                // The load balancer runs inside the resilience interceptor, once per attempt.
+                .additionalInterceptors(upstreamMetricsInterceptor, resilienceInterceptor)
+                .build();
     }
-}
 
+    // Reads the counters through the provider: EmployeeServiceImpl needs the RestTemplate, whose metrics customizer
+    // needs the registry that is binding these meters.
+    @Bean
+    public MeterBinder upstreamReadCoalescingMetrics(ObjectProvider<EmployeeServiceImpl> employeeService) {
+        return registry -> {
+            FunctionCounter.builder("employee.upstream.reads", employeeService,
+                            service -> service.getObject().getIssuedUpstreamReads())
+                    .description("Upstream GETs actually sent")
+                    .tag("result", "issued")
+                    .register(registry);
+            FunctionCounter.builder("employee.upstream.reads", employeeService,
+                            service -> service.getObject().getCoalescedUpstreamReads())
+                    .description("Upstream GETs that joined an identical call already in flight")
+                    .tag("result", "coalesced")
+                    .register(registry);
+        };
+    }
+}
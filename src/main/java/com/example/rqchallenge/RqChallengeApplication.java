@@ -2,8 +2,15 @@ package com.example.rqchallenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-@SpringBootApplication
+// Redis is only configured for the shared snapshot cache, by SharedSnapshotCacheConfig when it is selected.
+@SpringBootApplication(exclude = {RedisAutoConfiguration.class, RedisReactiveAutoConfiguration.class,
+        RedisRepositoriesAutoConfiguration.class})
+@ConfigurationPropertiesScan
 public class RqChallengeApplication {
 
     public static void main(String[] args) {
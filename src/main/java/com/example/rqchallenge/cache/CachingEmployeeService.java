@@ -0,0 +1,714 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
+import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeePage;
+import com.example.rqchallenge.entity.EmployeeWriteResult;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+import com.example.rqchallenge.service.EmployeeField;
+import com.example.rqchallenge.service.EmployeeService;
+import com.example.rqchallenge.service.EmployeeServiceImpl;
+import com.example.rqchallenge.service.NameMatch;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache in front of {@link EmployeeServiceImpl}. Reads are answered from an immutable
+ * {@link EmployeeSnapshot}; once the snapshot is older than the TTL it keeps being served while a single
+ * background refresh replaces it, and only past the max-staleness bound do readers wait on upstream.
+ * <p>
+ * Successful writes are applied to the snapshot as copy-on-write deltas. Deltas are also kept until a refresh
+ * that started after them is installed, so a fetch that raced a write cannot roll the write back.
+ * <p>
+ * When a snapshot file is configured the snapshot is persisted periodically and on shutdown, and restored on
+ * startup so the first reads are served from it while a background refresh revalidates it.
+ * <p>
+ * With a {@link SharedSnapshotCache} the instances of a deployment share one upstream load per refresh: a refresh
+ * takes a peer's snapshot when it is newer than ours and within the TTL, and otherwise only the holder of the
+ * refresh lease goes upstream while the others wait briefly for its result. Writes are broadcast to the other
+ * instances, which apply them like their own, and drop the shared copy since it predates them. Each write is
+ * stamped with its time, and a shared snapshot fetched before the latest write seen is neither taken nor shared,
+ * since a peer that was loading during the write may still put its older copy back.
+ * <p>
+ * Metrics: {@code employee.cache.requests} (hit, stale or miss per snapshot read), {@code employee.cache.lookups}
+ * (hit or miss per id), the {@code employee.cache.refresh} timer by trigger and outcome, {@code employee.cache.shared}
+ * (snapshots taken from or loaded for the shared cache) and snapshot gauges.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "employee.cache", name = "enabled", matchIfMissing = true)
+public class CachingEmployeeService implements EmployeeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingEmployeeService.class);
+
+    // Bounds the replay log when no refresh comes along to prune it.
+    private static final int MAX_PENDING_WRITES = 10_000;
+
+    private final EmployeeServiceImpl delegate;
+    private final EmployeeCacheProperties properties;
+    private final Clock clock;
+
+    private final AtomicReference<EmployeeSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong versions = new AtomicLong();
+    // A ReentrantLock rather than synchronized so virtual threads waiting on the load are not pinned.
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // Serialises snapshot installs with write deltas; readers never take it.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, EmployeeDelta> recentWrites = new ConcurrentSkipListMap<>();
+    private long installedRefreshStart = -1;
+    private final ScheduledExecutorService refresher;
+    private final SnapshotFileStore store;
+    private volatile long persistedVersion = -1;
+    private final EmployeeChangeFeed changeFeed;
+    private final SharedSnapshotCache sharedCache;
+    // Names this instance as lease owner and as the origin of its broadcast writes.
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Runnable sharedSubscription;
+    // Time of the latest write from any instance; shared snapshots fetched up to then may predate it.
+    private final AtomicLong lastInvalidationMillis = new AtomicLong(-1);
+
+    private final MeterRegistry meterRegistry;
+    private final Counter snapshotHits;
+    private final Counter staleSnapshotHits;
+    private final Counter snapshotMisses;
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter sharedHits;
+    private final Counter sharedLoads;
+
+    @Autowired
+    public CachingEmployeeService(EmployeeServiceImpl delegate, EmployeeCacheProperties properties,
+                                  MeterRegistry meterRegistry, ObjectProvider<SharedSnapshotCache> sharedCache) {
+        this(delegate, properties, Clock.systemUTC(), meterRegistry, sharedCache.getIfAvailable());
+    }
+
+    // For tests and benchmarks, which drive the clock and pass a null shared cache to run a single instance.
+    public CachingEmployeeService(EmployeeServiceImpl delegate, EmployeeCacheProperties properties, Clock clock,
+                                  MeterRegistry meterRegistry, SharedSnapshotCache sharedCache) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.changeFeed = new EmployeeChangeFeed(properties.getChangeFeedSize());
+        this.sharedCache = sharedCache;
+        this.snapshotHits = requestCounter("hit");
+        this.staleSnapshotHits = requestCounter("stale");
+        this.snapshotMisses = requestCounter("miss");
+        this.idHits = lookupCounter("hit");
+        this.idMisses = lookupCounter("miss");
+        this.sharedHits = sharedCounter("hit");
+        this.sharedLoads = sharedCounter("load");
+        registerGauges();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRefreshInterval().toMillis();
+        if (interval > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        String snapshotFile = properties.getSnapshotFile();
+        this.store = snapshotFile == null || snapshotFile.isEmpty()
+                ? null : new SnapshotFileStore(Paths.get(snapshotFile));
+        if (store != null) {
+            restore();
+            long persistInterval = properties.getPersistInterval().toMillis();
+            if (persistInterval > 0) {
+                refresher.scheduleWithFixedDelay(this::persistQuietly, persistInterval, persistInterval,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        this.sharedSubscription = sharedCache != null ? sharedCache.subscribe(this::onInvalidation) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sharedSubscription != null) {
+            sharedSubscription.run();
+        }
+        refresher.shutdownNow();
+        persistQuietly();
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return currentSnapshot().getEmployees();
+    }
+
+    // Lookups by id can still miss the snapshot and go upstream, so this only covers snapshot-wide reads.
+    @Override
+    public boolean isReadCached() {
+        EmployeeSnapshot current = snapshot.get();
+        return current != null && (current.isRestored() || !isBeyondMaxStaleness(current));
+    }
+
+    @Override
+    public EmployeePage getEmployeesPage(EmployeeField sort, boolean descending, int offset, int limit) {
+        return currentSnapshot().page(sort, descending, offset, limit);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByNameSearch(String name) {
+        return searchEmployeesByName(name, NameMatch.EXACT, 0);
+    }
+
+    @Override
+    public List<Employee> searchEmployeesByName(String query, NameMatch match, int limit) {
+        return currentSnapshot().searchByName(query, match, limit);
+    }
+
+    @Override
+    public EmployeeByIdResponse getEmployeeById(String id) {
+        Employee cached = currentSnapshot().findById(id);
+        if (cached == null) {
+            idMisses.increment();
+            return delegate.getEmployeeById(id);
+        }
+        idHits.increment();
+        EmployeeByIdResponse response = new EmployeeByIdResponse();
+        response.setStatus("success");
+        response.setData(cached);
+        response.setMessage("Successfully! Record has been fetched.");
+        return response;
+    }
+
+    @Override
+    public EmployeeBatchResponse getEmployeesByIds(List<String> ids) {
+        EmployeeSnapshot current = currentSnapshot();
+        Map<String, Employee> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            Employee cached = current.findById(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        idHits.increment(found.size());
+        idMisses.increment(misses.size());
+        EmployeeBatchResponse batch = new EmployeeBatchResponse();
+        if (!misses.isEmpty()) {
+            found.putAll(delegate.getEmployeesKeyedByIds(misses, batch.getErrors()));
+        }
+        for (String id : new LinkedHashSet<>(ids)) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                batch.getData().add(employee);
+            } else if (!batch.getErrors().containsKey(id)) {
+                batch.getErrors().put(id, "Employee not found");
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public int getHighestSalaryOfEmployees() {
+        return currentSnapshot().highestSalary();
+    }
+
+    @Override
+    public List<Employee> getTopHighestEarningEmployees(int size) {
+        return currentSnapshot().topEarners(size);
+    }
+
+    @Override
+    public SalaryAnalytics getSalaryAnalytics() {
+        return currentSnapshot().salaryAnalytics();
+    }
+
+    @Override
+    public EmployeeByIdResponse createEmployee(Employee employee) {
+        EmployeeByIdResponse response = delegate.createEmployee(employee);
+        EmployeeDelta delta = createdDelta(employee, response != null ? response.getData() : null);
+        if (delta != null) {
+            applyDeltas(Collections.singletonList(delta));
+        } else {
+            // Nothing we can index by; let the next read fetch the list again.
+            invalidate();
+        }
+        return response;
+    }
+
+    @Override
+    public void deleteEmployee(String id) {
+        delegate.deleteEmployee(id);
+        applyDeltas(Collections.singletonList(EmployeeDelta.deleted(id)));
+    }
+
+    @Override
+    public EmployeeBatchWriteResponse createEmployees(List<Employee> employees) {
+        EmployeeBatchWriteResponse batch = delegate.createEmployees(employees);
+        List<EmployeeDelta> deltas = new ArrayList<>();
+        boolean unindexed = false;
+        for (EmployeeWriteResult result : batch.getResults()) {
+            if (result.isSuccess()) {
+                EmployeeDelta delta = createdDelta(employees.get(result.getIndex()), result.getData());
+                if (delta != null) {
+                    deltas.add(delta);
+                } else {
+                    unindexed = true;
+                }
+            }
+        }
+        applyDeltas(deltas);
+        if (unindexed) {
+            invalidate();
+        }
+        return batch;
+    }
+
+    @Override
+    public EmployeeBatchWriteResponse deleteEmployees(List<String> ids) {
+        EmployeeBatchWriteResponse batch = delegate.deleteEmployees(ids);
+        List<EmployeeDelta> deltas = new ArrayList<>();
+        for (EmployeeWriteResult result : batch.getResults()) {
+            if (result.isSuccess()) {
+                deltas.add(EmployeeDelta.deleted(result.getId()));
+            }
+        }
+        applyDeltas(deltas);
+        return batch;
+    }
+
+    public EmployeeChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public void invalidate() {
+        snapshot.set(null);
+    }
+
+    void persist() throws IOException {
+        EmployeeSnapshot current = snapshot.get();
+        if (store == null || current == null || current.getVersion() == persistedVersion) {
+            return;
+        }
+        store.write(current);
+        persistedVersion = current.getVersion();
+        logger.debug("Employee snapshot v{} persisted to {}", current.getVersion(), store.getFile());
+    }
+
+    private void persistQuietly() {
+        try {
+            persist();
+        } catch (IOException e) {
+            logger.warn("Could not persist employee snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void restore() {
+        try {
+            EmployeeSnapshot restored = store.read();
+            if (restored == null) {
+                return;
+            }
+            if (restored.ageMillis(clock.millis()) > properties.getMaxPersistedAge().toMillis()) {
+                logger.info("Ignoring persisted employee snapshot v{}: older than {}", restored.getVersion(),
+                        properties.getMaxPersistedAge());
+                return;
+            }
+            versions.set(restored.getVersion());
+            persistedVersion = restored.getVersion();
+            snapshot.set(restored);
+            logger.info("Restored employee snapshot v{} with {} employees from {}", restored.getVersion(),
+                    restored.size(), store.getFile());
+        } catch (IOException e) {
+            logger.warn("Ignoring persisted employee snapshot: {}", e.getMessage());
+        }
+    }
+
+    // Null when upstream gave back nothing to index the new employee by.
+    private static EmployeeDelta createdDelta(Employee requested, Employee created) {
+        Employee merged = mergeCreated(requested, created);
+        return merged != null && merged.getId() != null ? EmployeeDelta.created(merged) : null;
+    }
+
+    // A batch is applied as one write, so the snapshot is copied once for all of it.
+    private void applyDeltas(List<EmployeeDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        applyToSnapshot(deltas);
+        if (sharedCache == null) {
+            return;
+        }
+        long now = clock.millis();
+        lastInvalidationMillis.accumulateAndGet(now, Math::max);
+        try {
+            // The shared copy predates this write, so the next refresh anywhere reloads from upstream.
+            sharedCache.evict();
+            for (EmployeeDelta delta : deltas) {
+                sharedCache.publish(new SharedSnapshotCache.Invalidation(instanceId, now, delta));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not share write of {} employee(s): {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    // Our own writes come back too and were applied already.
+    private void onInvalidation(SharedSnapshotCache.Invalidation invalidation) {
+        lastInvalidationMillis.accumulateAndGet(invalidation.getInvalidatedAtMillis(), Math::max);
+        if (!instanceId.equals(invalidation.getOrigin())) {
+            applyToSnapshot(Collections.singletonList(invalidation.getDelta()));
+        }
+    }
+
+    private void applyToSnapshot(List<EmployeeDelta> deltas) {
+        writeLock.lock();
+        try {
+            for (EmployeeDelta delta : deltas) {
+                long sequence = writeSequence.incrementAndGet();
+                recentWrites.put(sequence, delta);
+                if (sequence - recentWrites.firstKey() >= MAX_PENDING_WRITES) {
+                    recentWrites.pollFirstEntry();
+                }
+            }
+            EmployeeSnapshot current = snapshot.get();
+            if (current != null) {
+                current = current.apply(deltas, versions.incrementAndGet());
+                snapshot.set(current);
+            }
+            long version = current != null ? current.getVersion() : versions.get();
+            changeFeed.publish(deltas, version);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Upstream may echo only part of the record back, so missing fields are taken from the request.
+    private static Employee mergeCreated(Employee requested, Employee created) {
+        if (created == null) {
+            return null;
+        }
+        return new Employee(
+                created.getId(),
+                created.getEmployeeName() != null ? created.getEmployeeName() : requested.getEmployeeName(),
+                created.getEmployeeSalary() != 0 ? created.getEmployeeSalary() : requested.getEmployeeSalary(),
+                created.getEmployeeAge() != null ? created.getEmployeeAge() : requested.getEmployeeAge(),
+                created.getProfileImage() != null ? created.getProfileImage() : requested.getProfileImage());
+    }
+
+    // Version of the installed snapshot without triggering a load or refresh; -1 when there is none.
+    public long getSnapshotVersion() {
+        EmployeeSnapshot current = snapshot.get();
+        return current != null ? current.getVersion() : -1;
+    }
+
+    // Whether a read would be answered from the installed snapshot without starting a refresh: it is within its TTL
+    // and was not restored from disk. Never loads or refreshes.
+    public boolean isSnapshotFresh() {
+        EmployeeSnapshot current = snapshot.get();
+        return current != null && !current.isRestored()
+                && current.ageMillis(clock.millis()) < properties.getTtl().toMillis();
+    }
+
+    public EmployeeSnapshot currentSnapshot() {
+        EmployeeSnapshot current = snapshot.get();
+        // A restored snapshot is served whatever its age until the first refresh replaces it.
+        if (current == null || (isBeyondMaxStaleness(current) && !current.isRestored())) {
+            snapshotMisses.increment();
+            return loadSynchronously(current);
+        }
+        if (current.isRestored() || current.ageMillis(clock.millis()) >= properties.getTtl().toMillis()) {
+            staleSnapshotHits.increment();
+            refreshInBackground();
+        } else {
+            snapshotHits.increment();
+        }
+        return current;
+    }
+
+    private EmployeeSnapshot loadSynchronously(EmployeeSnapshot seen) {
+        loadLock.lock();
+        try {
+            EmployeeSnapshot current = snapshot.get();
+            if (current != null && current != seen && !isBeyondMaxStaleness(current)) {
+                return current;
+            }
+            try {
+                return timedRefresh("load");
+            } catch (UpstreamUnavailableException | HttpClientErrorException.TooManyRequests e) {
+                // Breaker open or throttled: an old answer beats failing the read.
+                if (current == null) {
+                    throw e;
+                }
+                logger.warn("Serving employee snapshot v{} past max staleness: {}", current.getVersion(), e.getMessage());
+                return current;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refreshQuietly();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            logger.warn("Could not schedule employee snapshot refresh: {}", e.getMessage());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            timedRefresh("background");
+        } catch (Exception e) {
+            logger.warn("Background refresh of employee snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    private EmployeeSnapshot timedRefresh(String trigger) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            EmployeeSnapshot fresh = refresh(!"load".equals(trigger));
+            if (fresh == null) {
+                outcome = "deferred";
+                return snapshot.get();
+            }
+            outcome = "success";
+            return fresh;
+        } finally {
+            sample.stop(Timer.builder("employee.cache.refresh")
+                    .description("Full reloads of the employee snapshot from upstream")
+                    .tag("trigger", trigger)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Null when a background refresh left the load to a peer that did not finish within the lease wait.
+    private EmployeeSnapshot refresh(boolean background) {
+        long startSequence = writeSequence.get();
+        EmployeeSnapshot fresh = fetch(background);
+        if (fresh == null) {
+            return null;
+        }
+
+        writeLock.lock();
+        try {
+            if (startSequence < installedRefreshStart) {
+                // A refresh that started later has already been installed.
+                return snapshot.get() != null ? snapshot.get() : fresh;
+            }
+            List<EmployeeDelta> replay = new ArrayList<>(recentWrites.tailMap(startSequence, false).values());
+            if (!replay.isEmpty()) {
+                fresh = fresh.apply(replay, versions.incrementAndGet());
+            }
+            recentWrites.headMap(startSequence, true).clear();
+            installedRefreshStart = startSequence;
+            EmployeeSnapshot previous = snapshot.get();
+            snapshot.set(fresh);
+            // Local writes were published as they happened and are in both snapshots, so this is upstream's.
+            if (previous != null) {
+                changeFeed.publish(fresh.changesSince(previous), fresh.getVersion());
+            } else if (changeFeed.getLastSequence() > 0) {
+                changeFeed.publishReset(fresh.getVersion());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        logger.debug("Employee snapshot v{} loaded with {} employees", fresh.getVersion(), fresh.size());
+        return fresh;
+    }
+
+    private EmployeeSnapshot fetch(boolean background) {
+        if (sharedCache == null) {
+            return fetchFromUpstream();
+        }
+        EmployeeSnapshot shared = readShared();
+        if (shared != null) {
+            return shared;
+        }
+        boolean leased;
+        try {
+            leased = sharedCache.tryAcquireRefreshLease(instanceId, properties.getShared().getRefreshLease());
+        } catch (RuntimeException e) {
+            logger.warn("Shared employee cache unavailable, loading from upstream: {}", e.getMessage());
+            return fetchFromUpstream();
+        }
+        if (leased) {
+            try {
+                // A peer may have finished its load between our read and taking the lease.
+                shared = readShared();
+                if (shared != null) {
+                    return shared;
+                }
+                EmployeeSnapshot fresh = fetchFromUpstream();
+                writeShared(fresh);
+                return fresh;
+            } finally {
+                releaseLease();
+            }
+        }
+        shared = awaitShared();
+        if (shared != null || background) {
+            return shared;
+        }
+        logger.debug("Employee snapshot load by a peer did not finish in time; loading from upstream");
+        return fetchFromUpstream();
+    }
+
+    // Stamped with the time the load started, so a write made while it ran counts as newer. Each employee is encoded
+    // into the snapshot's columns as it is parsed, so the full list is never built; loads are already one at a time.
+    private EmployeeSnapshot fetchFromUpstream() {
+        long fetchedAt = clock.millis();
+        EmployeeColumns.Builder rows = new EmployeeColumns.Builder();
+        delegate.forEachEmployee(rows::add);
+        return EmployeeSnapshot.of(versions.incrementAndGet(), fetchedAt, rows);
+    }
+
+    // The shared snapshot when it is within the TTL, newer than ours and than the latest write; fetch and write
+    // times come from the instances' own clocks, so these checks assume clocks roughly in step.
+    private EmployeeSnapshot readShared() {
+        try {
+            long fetchedAt = sharedCache.getFetchedAtMillis();
+            EmployeeSnapshot current = snapshot.get();
+            if (fetchedAt < 0 || clock.millis() - fetchedAt >= properties.getTtl().toMillis()
+                    || (current != null && fetchedAt <= current.getFetchedAtMillis())
+                    || fetchedAt <= lastInvalidationMillis.get()) {
+                return null;
+            }
+            EmployeeSnapshot shared = sharedCache.get();
+            if (shared == null) {
+                return null;
+            }
+            sharedHits.increment();
+            return shared.withVersion(versions.incrementAndGet());
+        } catch (RuntimeException e) {
+            logger.warn("Could not read shared employee snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private EmployeeSnapshot awaitShared() {
+        long waitMillis = properties.getShared().getLeaseWait().toMillis();
+        long pollMillis = Math.max(10, waitMillis / 20);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            EmployeeSnapshot shared = readShared();
+            if (shared != null) {
+                return shared;
+            }
+        }
+        return null;
+    }
+
+    private void writeShared(EmployeeSnapshot fresh) {
+        if (fresh.getFetchedAtMillis() <= lastInvalidationMillis.get()) {
+            // A write landed while we were loading; our own copy has it replayed, the shared one would not.
+            logger.debug("Not sharing employee snapshot v{}: written to while loading", fresh.getVersion());
+            return;
+        }
+        try {
+            sharedCache.put(fresh);
+            sharedLoads.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Could not share employee snapshot v{}: {}", fresh.getVersion(), e.getMessage());
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            sharedCache.releaseRefreshLease(instanceId);
+        } catch (RuntimeException e) {
+            // It expires on its own.
+            logger.debug("Could not release employee refresh lease: {}", e.getMessage());
+        }
+    }
+
+    private Counter requestCounter(String result) {
+        return Counter.builder("employee.cache.requests")
+                .description("Snapshot reads: hit, stale (served while refreshing) or miss (waited for upstream)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("employee.cache.lookups")
+                .description("Employee id lookups answered from the snapshot (hit) or sent upstream (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter sharedCounter(String result) {
+        return Counter.builder("employee.cache.shared")
+                .description("Refreshes that took a peer's snapshot (hit) or loaded one and shared it (load)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void registerGauges() {
+        Gauge.builder("employee.cache.snapshot.size", snapshot, ref -> ref.get() != null ? ref.get().size() : 0)
+                .description("Employees in the current snapshot")
+                .register(meterRegistry);
+        Gauge.builder("employee.cache.snapshot.version", snapshot,
+                        ref -> ref.get() != null ? ref.get().getVersion() : Double.NaN)
+                .register(meterRegistry);
+        TimeGauge.builder("employee.cache.snapshot.age", snapshot, TimeUnit.MILLISECONDS,
+                        ref -> ref.get() != null ? ref.get().ageMillis(clock.millis()) : Double.NaN)
+                .description("Time since the current snapshot was fetched from upstream")
+                .register(meterRegistry);
+        Gauge.builder("employee.cache.pending.writes", recentWrites, Map::size)
+                .description("Local writes kept for replay over the next refresh")
+                .register(meterRegistry);
+    }
+
+    private boolean isBeyondMaxStaleness(EmployeeSnapshot current) {
+        return current.ageMillis(clock.millis()) >= properties.getMaxStaleness().toMillis();
+    }
+}
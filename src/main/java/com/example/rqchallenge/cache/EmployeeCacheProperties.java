@@ -0,0 +1,62 @@
+package com.example.rqchallenge.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.cache")
+public class EmployeeCacheProperties {
+
+    private boolean enabled = true;
+
+    // Snapshots younger than this are served without touching upstream.
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Past the TTL but within this bound the stale snapshot is served while a refresh runs in the background;
+    // beyond it readers wait for a fresh fetch.
+    private Duration maxStaleness = Duration.ofMinutes(10);
+
+    // Proactive background refresh period; zero disables it.
+    private Duration refreshInterval = Duration.ZERO;
+
+    // File the snapshot is persisted to so a restart can serve it straight away; empty disables persistence.
+    private String snapshotFile = "";
+
+    // How often a changed snapshot is written out; it is also written on shutdown.
+    private Duration persistInterval = Duration.ofMinutes(1);
+
+    // A persisted snapshot older than this is ignored at startup.
+    private Duration maxPersistedAge = Duration.ofHours(24);
+
+    // Change events kept for clients of the change feed to catch up from after a reconnect.
+    private int changeFeedSize = 1024;
+
+    // How long a change feed connection is held open before the client has to reconnect.
+    private Duration changeFeedTimeout = Duration.ofMinutes(30);
+
+    // Comment sent to idle change feed connections, so proxies keep them open and dead clients are noticed.
+    private Duration changeFeedHeartbeat = Duration.ofSeconds(15);
+
+    private final Shared shared = new Shared();
+
+    @Getter
+    @Setter
+    public static class Shared {
+
+        // Second-level snapshot cache shared between instances: none, memory (single process, for tests) or redis.
+        private String type = "none";
+
+        // Prefix of the snapshot, lease and invalidation channel keys, so several deployments can share a server.
+        private String keyPrefix = "rqchallenge:employees";
+
+        // How long the instance refreshing from upstream holds the lease; should exceed a full upstream load.
+        private Duration refreshLease = Duration.ofSeconds(30);
+
+        // How long a load that finds the lease taken waits for the holder's snapshot before going upstream itself.
+        private Duration leaseWait = Duration.ofSeconds(2);
+    }
+}
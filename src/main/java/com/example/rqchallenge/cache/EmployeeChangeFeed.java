@@ -0,0 +1,158 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeChangeEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, in-memory log of employee changes with consecutive sequence numbers. The last {@code capacity} events
+ * are kept in a ring buffer so a reader that fell behind or reconnected can catch up from its last sequence; a
+ * reader further behind than that is told to reload instead.
+ * <p>
+ * Listeners are only woken up, on the publishing thread, and then read what they missed with
+ * {@link #since(long)}. That keeps publishing cheap and a slow reader cannot hold up writers.
+ * <p>
+ * Sequences start over with every feed and differ between replicas, so event ids handed to clients carry a random
+ * epoch as well ({@code epoch-sequence}); an id from another epoch cannot be resumed from.
+ */
+public final class EmployeeChangeFeed {
+
+    private final String epoch;
+    private final EmployeeChangeEvent[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    // Sequence of the most recent event; 0 before the first one.
+    private long lastSequence;
+
+    public EmployeeChangeFeed(int capacity) {
+        this(capacity, Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36));
+    }
+
+    public EmployeeChangeFeed(int capacity, String epoch) {
+        this.epoch = epoch;
+        this.ring = new EmployeeChangeEvent[Math.max(1, capacity)];
+    }
+
+    public void publish(List<EmployeeDelta> deltas, long version) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (EmployeeDelta delta : deltas) {
+                append(typeOf(delta), delta.getId(), delta.getEmployee(), version);
+            }
+        } finally {
+            lock.unlock();
+        }
+        wakeUp();
+    }
+
+    public void publishReset(long version) {
+        lock.lock();
+        try {
+            append(EmployeeChangeEvent.RESET, null, null, version);
+        } finally {
+            lock.unlock();
+        }
+        wakeUp();
+    }
+
+    /**
+     * Events after the given sequence, oldest first, or null when some of them have already been overwritten, or
+     * the sequence is not one this feed has reached, and the caller has to start over from a full load.
+     */
+    public List<EmployeeChangeEvent> since(long sequence) {
+        lock.lock();
+        try {
+            if (sequence > lastSequence) {
+                return null;
+            }
+            if (sequence == lastSequence) {
+                return Collections.emptyList();
+            }
+            long oldest = Math.max(1, lastSequence - ring.length + 1);
+            if (sequence + 1 < oldest) {
+                return null;
+            }
+            List<EmployeeChangeEvent> events = new ArrayList<>((int) (lastSequence - sequence));
+            for (long next = Math.max(sequence + 1, oldest); next <= lastSequence; next++) {
+                events.add(ring[slot(next)]);
+            }
+            return events;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sequence to resume after for the id of the last event a client saw, or -1, which {@link #since(long)} answers
+     * with null, when the id was not issued by this feed.
+     */
+    public long resumeAfter(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator <= 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Long.parseLong(eventId.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    // The listener runs on publishing threads and must only schedule the actual read.
+    public Runnable subscribe(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    private void append(String type, String id, Employee employee, long version) {
+        long sequence = ++lastSequence;
+        ring[slot(sequence)] = new EmployeeChangeEvent(sequence, type, id, employee, version);
+    }
+
+    private void wakeUp() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % ring.length);
+    }
+
+    private static String typeOf(EmployeeDelta delta) {
+        switch (delta.getType()) {
+            case CREATED:
+                return EmployeeChangeEvent.CREATED;
+            case UPDATED:
+                return EmployeeChangeEvent.UPDATED;
+            default:
+                return EmployeeChangeEvent.DELETED;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.service.SalaryAggregates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Column-per-field storage for snapshot employees. Salaries are an {@code int[]}. Ids and ages are {@code int[]}
+ * columns holding the parsed value whenever the upstream string is a canonical integer, which is nearly always;
+ * the rare other values sit in small per-row side maps. Names and profile image URLs are dictionary encoded, so
+ * repeated values (the image URL is usually empty) are stored once.
+ * <p>
+ * Rows are append-only and immutable: a snapshot points at the rows it considers live and a write appends a row
+ * instead of changing one, so every older snapshot keeps reading consistent values. {@link Employee} objects are
+ * only built by {@link #employee(int)} at the API edge.
+ */
+final class EmployeeColumns {
+
+    // Marks an id or age that is null or not a canonical integer; the side map tells which.
+    static final int NOT_INT = Integer.MIN_VALUE;
+    static final int NO_CODE = -1;
+
+    private final int rows;
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final int[] nameCodes;
+    private final int[] imageCodes;
+    private final String[] names;
+    private final String[] images;
+    // Reverse of images, so an append finds an existing code without a scan. Shared until an append adds a value.
+    private final Map<String, Integer> imageCodeOf;
+    // Row -> original string, for ids and ages that do not fit the int columns.
+    private final Map<Integer, String> textIds;
+    private final Map<Integer, String> textAges;
+
+    private EmployeeColumns(int rows, int[] ids, int[] salaries, int[] ages, int[] nameCodes, int[] imageCodes,
+                            String[] names, String[] images, Map<String, Integer> imageCodeOf,
+                            Map<Integer, String> textIds, Map<Integer, String> textAges) {
+        this.rows = rows;
+        this.ids = ids;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.nameCodes = nameCodes;
+        this.imageCodes = imageCodes;
+        this.names = names;
+        this.images = images;
+        this.imageCodeOf = imageCodeOf;
+        this.textIds = textIds;
+        this.textAges = textAges;
+    }
+
+    static EmployeeColumns build(List<Employee> employees) {
+        Builder builder = new Builder(employees.size());
+        employees.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Encodes employees one at a time, so a snapshot can be loaded straight from the upstream stream without
+     * holding the parsed list. The columns grow by doubling and are trimmed by {@link #build()}.
+     */
+    static final class Builder {
+
+        private int rows;
+        private int[] ids;
+        private int[] salaries;
+        private int[] ages;
+        private int[] nameCodes;
+        private int[] imageCodes;
+        private final Map<String, Integer> nameDictionary = new HashMap<>();
+        private final Map<String, Integer> imageDictionary = new HashMap<>();
+        private final Map<Integer, String> textIds = new HashMap<>();
+        private final Map<Integer, String> textAges = new HashMap<>();
+
+        Builder() {
+            this(16);
+        }
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(1, expectedRows);
+            ids = new int[capacity];
+            salaries = new int[capacity];
+            ages = new int[capacity];
+            nameCodes = new int[capacity];
+            imageCodes = new int[capacity];
+        }
+
+        void add(Employee employee) {
+            add(employee.getId(), employee.getEmployeeName(), employee.getEmployeeSalary(), employee.getEmployeeAge(),
+                    employee.getProfileImage());
+        }
+
+        void add(String id, String name, int salary, String age, String profileImage) {
+            if (rows == ids.length) {
+                int capacity = rows * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                salaries = Arrays.copyOf(salaries, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                nameCodes = Arrays.copyOf(nameCodes, capacity);
+                imageCodes = Arrays.copyOf(imageCodes, capacity);
+            }
+            int row = rows++;
+            ids[row] = encodeInt(id, row, textIds);
+            salaries[row] = salary;
+            ages[row] = encodeInt(age, row, textAges);
+            nameCodes[row] = encode(name, nameDictionary);
+            imageCodes[row] = encode(profileImage, imageDictionary);
+        }
+
+        EmployeeColumns build() {
+            return new EmployeeColumns(rows, Arrays.copyOf(ids, rows), Arrays.copyOf(salaries, rows),
+                    Arrays.copyOf(ages, rows), Arrays.copyOf(nameCodes, rows), Arrays.copyOf(imageCodes, rows),
+                    decode(nameDictionary), decode(imageDictionary), Collections.unmodifiableMap(imageDictionary),
+                    frozen(textIds), frozen(textAges));
+        }
+    }
+
+    EmployeeColumns withAppended(Employee employee) {
+        return withAppended(Collections.singletonList(employee));
+    }
+
+    /**
+     * Copies the columns once with the employees appended as rows {@link #rows()} onwards. Their names are added to
+     * the dictionary without looking for an existing entry, which would need a reverse map as large as the name
+     * column; the next full {@link #build(List)} dedupes them again. Image URLs have few distinct values, so their
+     * reverse map is kept and appended images reuse existing codes.
+     */
+    EmployeeColumns withAppended(List<Employee> employees) {
+        int count = employees.size();
+        int newRows = rows + count;
+        int[] newIds = Arrays.copyOf(ids, newRows);
+        int[] newSalaries = Arrays.copyOf(salaries, newRows);
+        int[] newAges = Arrays.copyOf(ages, newRows);
+        int[] newNameCodes = Arrays.copyOf(nameCodes, newRows);
+        int[] newImageCodes = Arrays.copyOf(imageCodes, newRows);
+        Map<Integer, String> newTextIds = null;
+        Map<Integer, String> newTextAges = null;
+        List<String> addedNames = new ArrayList<>();
+        List<String> addedImages = new ArrayList<>();
+        Map<String, Integer> newImageCodeOf = imageCodeOf;
+        for (int i = 0; i < count; i++) {
+            Employee employee = employees.get(i);
+            int row = rows + i;
+            newIds[row] = encodeInt(employee.getId(), row, null);
+            if (newIds[row] == NOT_INT && employee.getId() != null) {
+                newTextIds = newTextIds != null ? newTextIds : new HashMap<>(textIds);
+                newTextIds.put(row, employee.getId());
+            }
+            newSalaries[row] = employee.getEmployeeSalary();
+            newAges[row] = encodeInt(employee.getEmployeeAge(), row, null);
+            if (newAges[row] == NOT_INT && employee.getEmployeeAge() != null) {
+                newTextAges = newTextAges != null ? newTextAges : new HashMap<>(textAges);
+                newTextAges.put(row, employee.getEmployeeAge());
+            }
+            newNameCodes[row] = NO_CODE;
+            if (employee.getEmployeeName() != null) {
+                newNameCodes[row] = names.length + addedNames.size();
+                addedNames.add(employee.getEmployeeName());
+            }
+            newImageCodes[row] = NO_CODE;
+            if (employee.getProfileImage() != null) {
+                Integer code = newImageCodeOf.get(employee.getProfileImage());
+                if (code == null) {
+                    newImageCodeOf = newImageCodeOf != imageCodeOf ? newImageCodeOf : new HashMap<>(imageCodeOf);
+                    code = images.length + addedImages.size();
+                    newImageCodeOf.put(employee.getProfileImage(), code);
+                    addedImages.add(employee.getProfileImage());
+                }
+                newImageCodes[row] = code;
+            }
+        }
+        return new EmployeeColumns(newRows, newIds, newSalaries, newAges, newNameCodes, newImageCodes,
+                concat(names, addedNames), concat(images, addedImages),
+                newImageCodeOf != imageCodeOf ? Collections.unmodifiableMap(newImageCodeOf) : imageCodeOf,
+                newTextIds != null ? Collections.unmodifiableMap(newTextIds) : textIds,
+                newTextAges != null ? Collections.unmodifiableMap(newTextAges) : textAges);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    String id(int row) {
+        int id = ids[row];
+        return id != NOT_INT ? Integer.toString(id) : textIds.get(row);
+    }
+
+    // Compares without building the row's id string.
+    boolean hasId(int row, String id, int parsed) {
+        return parsed != NOT_INT ? ids[row] == parsed : ids[row] == NOT_INT && id.equals(textIds.get(row));
+    }
+
+    int idHash(int row) {
+        int id = ids[row];
+        if (id != NOT_INT) {
+            return Integer.hashCode(id);
+        }
+        String text = textIds.get(row);
+        return text != null ? text.hashCode() : 0;
+    }
+
+    int salary(int row) {
+        return salaries[row];
+    }
+
+    String age(int row) {
+        int age = ages[row];
+        return age != NOT_INT ? Integer.toString(age) : textAges.get(row);
+    }
+
+    // The parsed age, or SalaryAggregates.UNKNOWN_AGE.
+    int ageValue(int row) {
+        int age = ages[row];
+        return age != NOT_INT ? age : SalaryAggregates.parseAge(textAges.get(row));
+    }
+
+    String name(int row) {
+        int code = nameCodes[row];
+        return code != NO_CODE ? names[code] : null;
+    }
+
+    String profileImage(int row) {
+        int code = imageCodes[row];
+        return code != NO_CODE ? images[code] : null;
+    }
+
+    Employee employee(int row) {
+        return new Employee(id(row), name(row), salaries[row], age(row), profileImage(row));
+    }
+
+    // Whether two rows, possibly of different column sets, hold the same name, salary, age and image.
+    static boolean sameValues(EmployeeColumns a, int rowA, EmployeeColumns b, int rowB) {
+        if (a.salaries[rowA] != b.salaries[rowB] || a.ages[rowA] != b.ages[rowB]) {
+            return false;
+        }
+        return (a.ages[rowA] != NOT_INT || Objects.equals(a.textAges.get(rowA), b.textAges.get(rowB)))
+                && Objects.equals(a.name(rowA), b.name(rowB))
+                && Objects.equals(a.profileImage(rowA), b.profileImage(rowB));
+    }
+
+    // The int form of a canonical integer string ("42", not "042" or "+42"), otherwise NOT_INT.
+    static int parseCanonicalInt(String value) {
+        if (value == null || value.isEmpty() || value.length() > 11) {
+            return NOT_INT;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            return parsed != NOT_INT && Integer.toString(parsed).equals(value) ? parsed : NOT_INT;
+        } catch (NumberFormatException e) {
+            return NOT_INT;
+        }
+    }
+
+    private static int encodeInt(String value, int row, Map<Integer, String> text) {
+        int parsed = parseCanonicalInt(value);
+        if (parsed == NOT_INT && value != null && text != null) {
+            text.put(row, value);
+        }
+        return parsed;
+    }
+
+    private static int encode(String value, Map<String, Integer> dictionary) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.put(value, code);
+        }
+        return code;
+    }
+
+    private static String[] decode(Map<String, Integer> dictionary) {
+        String[] values = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            values[entry.getValue()] = entry.getKey();
+        }
+        return values;
+    }
+
+    private static String[] concat(String[] values, List<String> added) {
+        if (added.isEmpty()) {
+            return values;
+        }
+        String[] copy = Arrays.copyOf(values, values.length + added.size());
+        for (int i = 0; i < added.size(); i++) {
+            copy[values.length + i] = added.get(i);
+        }
+        return copy;
+    }
+
+    private static Map<Integer, String> frozen(Map<Integer, String> map) {
+        return map.isEmpty() ? Collections.<Integer, String>emptyMap() : Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+
+/**
+ * A single-record change to the employee set, applied to a snapshot without refetching the list.
+ */
+public final class EmployeeDelta {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final String id;
+    private final Employee employee;
+
+    private EmployeeDelta(Type type, String id, Employee employee) {
+        this.type = type;
+        this.id = id;
+        this.employee = employee;
+    }
+
+    public static EmployeeDelta created(Employee employee) {
+        return new EmployeeDelta(Type.CREATED, employee.getId(), employee);
+    }
+
+    public static EmployeeDelta updated(Employee employee) {
+        return new EmployeeDelta(Type.UPDATED, employee.getId(), employee);
+    }
+
+    public static EmployeeDelta deleted(String id) {
+        return new EmployeeDelta(Type.DELETED, id, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // Null for deletions.
+    public Employee getEmployee() {
+        return employee;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.rqchallenge.cache;
+
+/**
+ * Open-addressing hash from employee id to row in {@link EmployeeColumns}. Slots hold {@code row + 1}, so the whole
+ * index is a single {@code int[]} with no per-entry objects; ids are compared against the columns rather than
+ * stored again. Instances are immutable and the with/without methods return patched copies.
+ */
+final class EmployeeIdIndex {
+
+    private static final int EMPTY = 0;
+    // Left by a removal so probes for later entries keep going.
+    private static final int REMOVED = -1;
+
+    private final int[] slots;
+    // Slots that are not EMPTY, removals included; only changes while a copy is being built.
+    private int used;
+
+    private EmployeeIdIndex(int[] slots, int used) {
+        this.slots = slots;
+        this.used = used;
+    }
+
+    static EmployeeIdIndex build(EmployeeColumns columns, int[] rows) {
+        EmployeeIdIndex index = new EmployeeIdIndex(new int[capacityFor(rows.length)], 0);
+        for (int row : rows) {
+            index.insert(columns, row);
+        }
+        return index;
+    }
+
+    // The row holding the id, or -1.
+    int find(EmployeeColumns columns, String id) {
+        if (id == null) {
+            return -1;
+        }
+        int parsed = EmployeeColumns.parseCanonicalInt(id);
+        int mask = slots.length - 1;
+        for (int i = spread(parsed != EmployeeColumns.NOT_INT ? Integer.hashCode(parsed) : id.hashCode()) & mask;
+             slots[i] != EMPTY; i = (i + 1) & mask) {
+            int row = slots[i] - 1;
+            if (slots[i] != REMOVED && columns.hasId(row, id, parsed)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    EmployeeIdIndex with(EmployeeColumns columns, int row) {
+        return patched(columns, new int[0], new int[]{row});
+    }
+
+    EmployeeIdIndex without(int row) {
+        return patched(null, new int[]{row}, new int[0]);
+    }
+
+    // A single copy with the removed rows dropped and then the added ones inserted.
+    EmployeeIdIndex patched(EmployeeColumns columns, int[] removedRows, int[] addedRows) {
+        EmployeeIdIndex copy = used + addedRows.length > slots.length / 2
+                ? rehash(columns, capacityFor(used + addedRows.length))
+                : new EmployeeIdIndex(slots.clone(), used);
+        for (int row : removedRows) {
+            copy.remove(columns, row);
+        }
+        for (int row : addedRows) {
+            copy.insert(columns, row);
+        }
+        return copy;
+    }
+
+    // Probing needs the row's id hash; without the columns this falls back to a scan.
+    private void remove(EmployeeColumns columns, int row) {
+        int mask = slots.length - 1;
+        int i = columns != null ? spread(columns.idHash(row)) & mask : 0;
+        for (int probes = 0; probes < slots.length && (columns == null || slots[i] != EMPTY); probes++) {
+            if (slots[i] == row + 1) {
+                slots[i] = REMOVED;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // Rows without an id are not indexed; a repeated id points at the later row, as a map put would.
+    private void insert(EmployeeColumns columns, int row) {
+        String id = columns.id(row);
+        if (id == null) {
+            return;
+        }
+        int parsed = EmployeeColumns.parseCanonicalInt(id);
+        int mask = slots.length - 1;
+        int i = spread(columns.idHash(row)) & mask;
+        while (slots[i] != EMPTY) {
+            if (slots[i] != REMOVED && columns.hasId(slots[i] - 1, id, parsed)) {
+                slots[i] = row + 1;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = row + 1;
+        used++;
+    }
+
+    private EmployeeIdIndex rehash(EmployeeColumns columns, int capacity) {
+        EmployeeIdIndex grown = new EmployeeIdIndex(new int[capacity], 0);
+        int count = 0;
+        for (int slot : slots) {
+            if (slot > 0) {
+                grown.slots[probeEmpty(grown.slots, columns.idHash(slot - 1))] = slot;
+                count++;
+            }
+        }
+        return new EmployeeIdIndex(grown.slots, count);
+    }
+
+    private static int probeEmpty(int[] slots, int hash) {
+        int mask = slots.length - 1;
+        int i = spread(hash) & mask;
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    // Power of two at least twice the entries, so probe runs stay short.
+    private static int capacityFor(int entries) {
+        int capacity = 16;
+        while (capacity < entries * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
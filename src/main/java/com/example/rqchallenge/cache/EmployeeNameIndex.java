@@ -0,0 +1,269 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.service.NameMatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive name index over a snapshot. Exact lookups go through a hash map, prefix lookups through a
+ * sorted map range and substring lookups through a trigram posting list intersection, so a query only touches
+ * names that can match. Queries shorter than a trigram fall back to a scan of the distinct names that stops at
+ * the limit. Matches are returned as rows of the snapshot's {@link EmployeeColumns}.
+ * <p>
+ * Instances are immutable; {@link #withChanges(int[], String[], int[], String[])} and its single-row forms return
+ * updated copies that share untouched posting lists, so a write does not re-tokenize the whole dataset. Removed names
+ * leave tombstones that are dropped on the next full rebuild.
+ */
+public final class EmployeeNameIndex {
+
+    private static final int GRAM = 3;
+
+    // Per name id: the normalized name (null once removed) and the rows carrying it.
+    private final String[] names;
+    private final List<int[]> holders;
+    private final Map<String, Integer> idsByName;
+    private final NavigableMap<String, Integer> sortedNames;
+    // Trigram -> ascending name ids.
+    private final Map<String, int[]> postings;
+
+    private EmployeeNameIndex(String[] names, List<int[]> holders, Map<String, Integer> idsByName,
+                              NavigableMap<String, Integer> sortedNames, Map<String, int[]> postings) {
+        this.names = names;
+        this.holders = holders;
+        this.idsByName = idsByName;
+        this.sortedNames = sortedNames;
+        this.postings = postings;
+    }
+
+    static EmployeeNameIndex build(EmployeeColumns columns, int[] rows) {
+        Map<String, Integer> idsByName = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<IntBuffer> holders = new ArrayList<>();
+        for (int row : rows) {
+            String name = NameMatch.normalize(columns.name(row));
+            if (name == null) {
+                continue;
+            }
+            Integer id = idsByName.get(name);
+            if (id == null) {
+                id = names.size();
+                idsByName.put(name, id);
+                names.add(name);
+                holders.add(new IntBuffer());
+            }
+            holders.get(id).add(row);
+        }
+
+        Map<String, IntBuffer> buffers = new HashMap<>();
+        for (int id = 0; id < names.size(); id++) {
+            for (String gram : grams(names.get(id))) {
+                buffers.computeIfAbsent(gram, key -> new IntBuffer()).add(id);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(buffers.size() * 2);
+        for (Map.Entry<String, IntBuffer> entry : buffers.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+        List<int[]> frozen = new ArrayList<>(holders.size());
+        for (IntBuffer holder : holders) {
+            frozen.add(holder.toArray());
+        }
+        return new EmployeeNameIndex(names.toArray(new String[0]), frozen, idsByName,
+                new TreeMap<>(idsByName), postings);
+    }
+
+    int[] search(String query, NameMatch match, int limit) {
+        String normalized = NameMatch.normalize(query);
+        if (normalized == null || normalized.isEmpty()) {
+            return new int[0];
+        }
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+        IntBuffer result = new IntBuffer();
+        switch (match) {
+            case EXACT:
+                Integer id = idsByName.get(normalized);
+                if (id != null) {
+                    collect(id, result, max);
+                }
+                break;
+            case PREFIX:
+                for (Integer prefixed : sortedNames.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+                    if (!collect(prefixed, result, max)) {
+                        break;
+                    }
+                }
+                break;
+            case CONTAINS:
+                if (normalized.length() < GRAM) {
+                    for (Map.Entry<String, Integer> entry : sortedNames.entrySet()) {
+                        if (entry.getKey().contains(normalized) && !collect(entry.getValue(), result, max)) {
+                            break;
+                        }
+                    }
+                } else {
+                    for (int candidate : candidates(normalized)) {
+                        String name = names[candidate];
+                        if (name != null && name.contains(normalized) && !collect(candidate, result, max)) {
+                            break;
+                        }
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported match mode " + match);
+        }
+        return result.toArray();
+    }
+
+    EmployeeNameIndex withAdded(int row, String employeeName) {
+        return withChanges(new int[0], new String[0], new int[]{row}, new String[]{employeeName});
+    }
+
+    EmployeeNameIndex withRemoved(int row, String employeeName) {
+        return withChanges(new int[]{row}, new String[]{employeeName}, new int[0], new String[0]);
+    }
+
+    /**
+     * Removes and then adds rows, given with their employee names, copying each structure at most once. The name
+     * maps and postings are only copied when a name appears or disappears.
+     */
+    EmployeeNameIndex withChanges(int[] removedRows, String[] removedNames, int[] addedRows, String[] addedNames) {
+        List<int[]> newHolders = new ArrayList<>(holders);
+        List<String> newNames = null;
+        Map<String, Integer> newIds = idsByName;
+        NavigableMap<String, Integer> newSorted = sortedNames;
+        Map<String, int[]> newPostings = postings;
+        for (int i = 0; i < removedRows.length; i++) {
+            String name = NameMatch.normalize(removedNames[i]);
+            Integer id = name == null ? null : newIds.get(name);
+            if (id == null) {
+                continue;
+            }
+            int[] holder = newHolders.get(id);
+            int position = indexOf(holder, removedRows[i]);
+            if (position < 0) {
+                continue;
+            }
+            int[] remaining = new int[holder.length - 1];
+            System.arraycopy(holder, 0, remaining, 0, position);
+            System.arraycopy(holder, position + 1, remaining, position, remaining.length - position);
+            newHolders.set(id, remaining);
+            if (remaining.length == 0) {
+                if (newNames == null) {
+                    newNames = new ArrayList<>(Arrays.asList(names));
+                    newIds = new HashMap<>(idsByName);
+                    newSorted = new TreeMap<>(sortedNames);
+                }
+                newNames.set(id, null);
+                newIds.remove(name);
+                newSorted.remove(name);
+            }
+        }
+        for (int i = 0; i < addedRows.length; i++) {
+            String name = NameMatch.normalize(addedNames[i]);
+            if (name == null) {
+                continue;
+            }
+            Integer existing = newIds.get(name);
+            if (existing != null) {
+                int[] holder = newHolders.get(existing);
+                int[] appended = Arrays.copyOf(holder, holder.length + 1);
+                appended[holder.length] = addedRows[i];
+                newHolders.set(existing, appended);
+                continue;
+            }
+            if (newNames == null) {
+                newNames = new ArrayList<>(Arrays.asList(names));
+                newIds = new HashMap<>(idsByName);
+                newSorted = new TreeMap<>(sortedNames);
+            }
+            if (newPostings == postings) {
+                newPostings = new HashMap<>(postings);
+            }
+            int id = newNames.size();
+            newNames.add(name);
+            newHolders.add(new int[]{addedRows[i]});
+            newIds.put(name, id);
+            newSorted.put(name, id);
+            for (String gram : grams(name)) {
+                int[] ids = newPostings.get(gram);
+                int[] appended = ids == null ? new int[1] : Arrays.copyOf(ids, ids.length + 1);
+                appended[appended.length - 1] = id;
+                newPostings.put(gram, appended);
+            }
+        }
+        return new EmployeeNameIndex(newNames != null ? newNames.toArray(new String[0]) : names, newHolders, newIds,
+                newSorted, newPostings);
+    }
+
+    private boolean collect(int id, IntBuffer result, int max) {
+        for (int row : holders.get(id)) {
+            if (result.size() >= max) {
+                return false;
+            }
+            result.add(row);
+        }
+        return result.size() < max;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int[] candidates(String query) {
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            int[] ids = postings.get(gram);
+            if (ids == null) {
+                return new int[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] current = lists.get(0);
+        for (int i = 1; i < lists.size() && current.length > 0; i++) {
+            current = intersect(current, lists.get(i));
+        }
+        return current;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static Set<String> grams(String name) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= name.length(); i++) {
+            grams.add(name.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
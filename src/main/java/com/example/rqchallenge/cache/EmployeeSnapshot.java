@@ -0,0 +1,426 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeePage;
+import com.example.rqchallenge.entity.EmployeeRows;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+import com.example.rqchallenge.service.EmployeeField;
+import com.example.rqchallenge.service.NameMatch;
+import com.example.rqchallenge.service.SalaryAggregates;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable point-in-time copy of the upstream employee list, held in {@link EmployeeColumns} rather than as
+ * {@link Employee} objects. Every read builds fresh employees for just the rows it returns, so callers may
+ * modify what they get without affecting the snapshot.
+ * <p>
+ * The indexes (upstream order, id hash, salary order, names) are all row numbers. Local writes produce a new
+ * snapshot through {@link #apply(List, long)}, which appends rows and patches every index instead of rebuilding
+ * them; a batch of writes goes through as one list so the columns and indexes are copied once for all of it.
+ */
+public final class EmployeeSnapshot {
+
+    private final long version;
+    private final long fetchedAtMillis;
+    private final EmployeeColumns columns;
+    // Live rows in upstream order; rows dropped by a write stay in the columns until the next full load.
+    private final int[] order;
+    private final EmployeeIdIndex idIndex;
+    // Salary-descending rows, built once per snapshot so top-k and max are O(k) and O(1) reads.
+    private final int[] bySalaryDesc;
+    private final EmployeeNameIndex nameIndex;
+    // Patched with each write like the indexes; order statistics come from bySalaryDesc.
+    private final SalaryAggregates aggregates;
+    // Loaded from the on-disk copy rather than fetched by this process.
+    private final boolean restored;
+    // Ascending orders for the other sort fields, built on first use; the snapshot is immutable so they stay valid.
+    private final ConcurrentMap<EmployeeField, int[]> sortedViews = new ConcurrentHashMap<>();
+    private volatile SalaryAnalytics analytics;
+
+    private EmployeeSnapshot(long version, long fetchedAtMillis, boolean restored, EmployeeColumns columns,
+                             int[] order, EmployeeIdIndex idIndex, int[] bySalaryDesc, EmployeeNameIndex nameIndex,
+                             SalaryAggregates aggregates) {
+        this.version = version;
+        this.fetchedAtMillis = fetchedAtMillis;
+        this.restored = restored;
+        this.columns = columns;
+        this.order = order;
+        this.idIndex = idIndex;
+        this.bySalaryDesc = bySalaryDesc;
+        this.nameIndex = nameIndex;
+        this.aggregates = aggregates;
+    }
+
+    private static EmployeeSnapshot build(long version, long fetchedAtMillis, boolean restored,
+                                          EmployeeColumns columns) {
+        int[] order = new int[columns.rows()];
+        int[] salaries = new int[order.length];
+        int[] ages = new int[order.length];
+        for (int row = 0; row < order.length; row++) {
+            order[row] = row;
+            salaries[row] = columns.salary(row);
+            ages[row] = columns.ageValue(row);
+        }
+        return new EmployeeSnapshot(version, fetchedAtMillis, restored, columns, order,
+                EmployeeIdIndex.build(columns, order), sortBySalaryDesc(columns, order),
+                EmployeeNameIndex.build(columns, order), SalaryAggregates.of(salaries, ages, order.length));
+    }
+
+    public static EmployeeSnapshot of(long version, long fetchedAtMillis, List<Employee> employees) {
+        return build(version, fetchedAtMillis, false,
+                EmployeeColumns.build(employees != null ? employees : Collections.<Employee>emptyList()));
+    }
+
+    // A snapshot of rows encoded as they were read, e.g. straight off the upstream stream.
+    static EmployeeSnapshot of(long version, long fetchedAtMillis, EmployeeColumns.Builder rows) {
+        return build(version, fetchedAtMillis, false, rows.build());
+    }
+
+    // Rows decoded from a persisted or shared snapshot; the result reports isRestored().
+    static EmployeeSnapshot restored(long version, long fetchedAtMillis, EmployeeColumns.Builder rows) {
+        return build(version, fetchedAtMillis, true, rows.build());
+    }
+
+    // The same data as a snapshot fetched by this process under a local version, sharing every index.
+    public EmployeeSnapshot withVersion(long newVersion) {
+        return new EmployeeSnapshot(newVersion, fetchedAtMillis, false, columns, order, idIndex, bySalaryDesc,
+                nameIndex, aggregates);
+    }
+
+    public EmployeeSnapshot apply(EmployeeDelta delta, long newVersion) {
+        return apply(Collections.singletonList(delta), newVersion);
+    }
+
+    /**
+     * Applies the deltas in order as one write: the new rows go into the columns in a single append and each index
+     * is copied once, however many deltas there are. Keeps fetchedAtMillis: a local write does not make the rest of
+     * the snapshot any fresher.
+     */
+    public EmployeeSnapshot apply(List<EmployeeDelta> deltas, long newVersion) {
+        int firstAdded = columns.rows();
+        List<Employee> appended = new ArrayList<>();
+        Map<String, Change> changes = new HashMap<>();
+        // Ids that end up at the end of upstream order, in the order they were created.
+        Map<String, Change> created = new LinkedHashMap<>();
+        for (EmployeeDelta delta : deltas) {
+            String id = delta.getId();
+            Change change = id != null ? changes.get(id) : null;
+            if (change == null) {
+                change = new Change(id != null ? idIndex.find(columns, id) : -1);
+            }
+            if (delta.getType() == EmployeeDelta.Type.DELETED) {
+                if (change.row < 0) {
+                    continue;
+                }
+                change.row = -1;
+                change.inPlace = false;
+                created.remove(id);
+            } else {
+                if (delta.getEmployee() == null || delta.getEmployee().getId() == null) {
+                    throw new IllegalArgumentException("Cannot apply a delta for an employee without id");
+                }
+                if (change.row < 0) {
+                    created.put(id, change);
+                }
+                // An update keeps the employee's place in upstream order.
+                change.row = firstAdded + appended.size();
+                appended.add(delta.getEmployee());
+            }
+            changes.put(id, change);
+        }
+
+        IntBuffer removedRows = new IntBuffer();
+        IntBuffer addedRows = new IntBuffer();
+        for (Change change : changes.values()) {
+            if (change.original >= 0 && change.row != change.original) {
+                removedRows.add(change.original);
+            }
+            if (change.row >= firstAdded) {
+                addedRows.add(change.row);
+            }
+        }
+        if (removedRows.size() == 0 && addedRows.size() == 0) {
+            return this;
+        }
+        int[] removed = removedRows.toArray();
+        int[] added = addedRows.toArray();
+        Arrays.sort(removed);
+        Arrays.sort(added);
+        EmployeeColumns newColumns = appended.isEmpty() ? columns : columns.withAppended(appended);
+
+        Change[] byRemoved = new Change[removed.length];
+        for (Change change : changes.values()) {
+            if (change.original >= 0 && change.row != change.original) {
+                byRemoved[Arrays.binarySearch(removed, change.original)] = change;
+            }
+        }
+        int[] newOrder = new int[order.length + created.size()];
+        int size = 0;
+        for (int row : order) {
+            int at = Arrays.binarySearch(removed, row);
+            if (at < 0) {
+                newOrder[size++] = row;
+            } else if (byRemoved[at].inPlace) {
+                newOrder[size++] = byRemoved[at].row;
+            }
+        }
+        for (Change change : created.values()) {
+            newOrder[size++] = change.row;
+        }
+        newOrder = Arrays.copyOf(newOrder, size);
+
+        // Merges the surviving rows with the added ones; added rows go after existing ones of the same salary.
+        int[] addedBySalary = sortBySalaryDesc(newColumns, added);
+        int[] newBySalary = new int[bySalaryDesc.length - removed.length + added.length];
+        int next = 0;
+        int from = 0;
+        for (int row : bySalaryDesc) {
+            if (Arrays.binarySearch(removed, row) >= 0) {
+                continue;
+            }
+            while (from < addedBySalary.length
+                    && newColumns.salary(addedBySalary[from]) > newColumns.salary(row)) {
+                newBySalary[next++] = addedBySalary[from++];
+            }
+            newBySalary[next++] = row;
+        }
+        while (from < addedBySalary.length) {
+            newBySalary[next++] = addedBySalary[from++];
+        }
+
+        String[] removedNames = new String[removed.length];
+        SalaryAggregates newAggregates = aggregates;
+        for (int i = 0; i < removed.length; i++) {
+            removedNames[i] = columns.name(removed[i]);
+            newAggregates = newAggregates.without(columns.salary(removed[i]), columns.ageValue(removed[i]));
+        }
+        String[] addedNames = new String[added.length];
+        for (int i = 0; i < added.length; i++) {
+            addedNames[i] = newColumns.name(added[i]);
+            newAggregates = newAggregates.with(newColumns.salary(added[i]), newColumns.ageValue(added[i]));
+        }
+        return new EmployeeSnapshot(newVersion, fetchedAtMillis, restored, newColumns, newOrder,
+                idIndex.patched(newColumns, removed, added), newBySalary,
+                nameIndex.withChanges(removed, removedNames, added, addedNames), newAggregates);
+    }
+
+    /**
+     * What changed between an earlier snapshot and this one, by id: employees missing here are deletions, new
+     * ids are creations and ids whose fields differ are updates. Employees without an id are not compared.
+     */
+    public List<EmployeeDelta> changesSince(EmployeeSnapshot previous) {
+        List<EmployeeDelta> changes = new ArrayList<>();
+        for (int row : previous.order) {
+            String id = previous.columns.id(row);
+            if (id != null && idIndex.find(columns, id) < 0) {
+                changes.add(EmployeeDelta.deleted(id));
+            }
+        }
+        for (int row : order) {
+            String id = columns.id(row);
+            if (id == null) {
+                continue;
+            }
+            int before = previous.idIndex.find(previous.columns, id);
+            if (before < 0) {
+                changes.add(EmployeeDelta.created(columns.employee(row)));
+            } else if (!EmployeeColumns.sameValues(previous.columns, before, columns, row)) {
+                changes.add(EmployeeDelta.updated(columns.employee(row)));
+            }
+        }
+        return changes;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getFetchedAtMillis() {
+        return fetchedAtMillis;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public long ageMillis(long nowMillis) {
+        return nowMillis - fetchedAtMillis;
+    }
+
+    // A read-only view that builds each employee as it is read.
+    public List<Employee> getEmployees() {
+        return new RowList(order);
+    }
+
+    public Employee findById(String id) {
+        int row = idIndex.find(columns, id);
+        return row >= 0 ? columns.employee(row) : null;
+    }
+
+    public List<Employee> topEarners(int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        return materialize(bySalaryDesc, Math.min(k, bySalaryDesc.length));
+    }
+
+    public List<Employee> searchByName(String query, NameMatch match, int limit) {
+        int[] rows = nameIndex.search(query, match, limit);
+        return materialize(rows, rows.length);
+    }
+
+    // A null sort keeps upstream order. Salary pages come straight off the salary index.
+    public EmployeePage page(EmployeeField sort, boolean descending, int offset, int limit) {
+        int[] ordered;
+        boolean reversed;
+        if (sort == null) {
+            ordered = order;
+            reversed = descending;
+        } else if (sort == EmployeeField.SALARY) {
+            ordered = bySalaryDesc;
+            reversed = !descending;
+        } else {
+            ordered = sortedViews.computeIfAbsent(sort, this::sortedBy);
+            reversed = descending;
+        }
+        int total = ordered.length;
+        int from = (int) Math.min(total, Math.max(0L, offset));
+        int to = (int) Math.min(total, (long) from + limit);
+        int[] rows = new int[to - from];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = reversed ? ordered[total - from - 1 - i] : ordered[from + i];
+        }
+        RowList slice = new RowList(rows);
+        return new EmployeePage(slice, slice, total);
+    }
+
+    public int highestSalary() {
+        return bySalaryDesc.length == 0 ? 0 : columns.salary(bySalaryDesc[0]);
+    }
+
+    // Built on first read and kept for the life of the snapshot.
+    public SalaryAnalytics salaryAnalytics() {
+        SalaryAnalytics current = analytics;
+        if (current == null) {
+            int last = bySalaryDesc.length - 1;
+            current = aggregates.toAnalytics(rank -> columns.salary(bySalaryDesc[last - rank]));
+            analytics = current;
+        }
+        return current;
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    private List<Employee> materialize(int[] rows, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(columns.employee(rows[i]));
+        }
+        return employees;
+    }
+
+    // Sorts once through temporary employees; only the resulting row order is kept.
+    private int[] sortedBy(EmployeeField field) {
+        Employee[] employees = new Employee[order.length];
+        Integer[] positions = new Integer[order.length];
+        for (int i = 0; i < order.length; i++) {
+            employees[i] = columns.employee(order[i]);
+            positions[i] = i;
+        }
+        Comparator<Employee> ascending = field.ascending();
+        // Stable, so ties keep upstream order.
+        Arrays.sort(positions, (a, b) -> ascending.compare(employees[a], employees[b]));
+        int[] sorted = new int[order.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = order[positions[i]];
+        }
+        return sorted;
+    }
+
+    // Sorts (salary, row) pairs packed into longs, so ties keep upstream order without boxing anything.
+    private static int[] sortBySalaryDesc(EmployeeColumns columns, int[] rows) {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = ((long) ~columns.salary(rows[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = rows[(int) keys[i]];
+        }
+        return sorted;
+    }
+
+    // One id touched by a batch of deltas: its live row before the batch and now (-1 when there is none).
+    private static final class Change {
+
+        private final int original;
+        private int row;
+        // Whether it still holds the original row's place in upstream order.
+        private boolean inPlace;
+
+        Change(int original) {
+            this.original = original;
+            this.row = original;
+            this.inPlace = original >= 0;
+        }
+    }
+
+    private final class RowList extends AbstractList<Employee> implements RandomAccess, EmployeeRows {
+
+        private final int[] rows;
+
+        RowList(int[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Employee get(int index) {
+            return columns.employee(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+
+        @Override
+        public String id(int index) {
+            return columns.id(rows[index]);
+        }
+
+        @Override
+        public String name(int index) {
+            return columns.name(rows[index]);
+        }
+
+        @Override
+        public int salary(int index) {
+            return columns.salary(rows[index]);
+        }
+
+        @Override
+        public String age(int index) {
+            return columns.age(rows[index]);
+        }
+
+        @Override
+        public String profileImage(int index) {
+            return columns.profileImage(rows[index]);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.rqchallenge.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedSnapshotCache} within a single process, for tests and local runs with several services in one JVM.
+ * Snapshots are kept encoded, so readers get their own copy just as they would from a remote store.
+ */
+public class InMemorySharedSnapshotCache implements SharedSnapshotCache {
+
+    private final Clock clock;
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+    private byte[] snapshot;
+    private long fetchedAtMillis = -1;
+    private String leaseOwner;
+    private long leaseExpiresAtMillis;
+
+    public InMemorySharedSnapshotCache() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemorySharedSnapshotCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public EmployeeSnapshot get() {
+        byte[] encoded;
+        synchronized (this) {
+            encoded = snapshot;
+        }
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            return SnapshotFileStore.decode(ByteBuffer.wrap(encoded), "in shared memory cache");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized long getFetchedAtMillis() {
+        return fetchedAtMillis;
+    }
+
+    @Override
+    public void put(EmployeeSnapshot snapshot) {
+        byte[] encoded;
+        try {
+            encoded = SnapshotFileStore.encode(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (this) {
+            this.snapshot = encoded;
+            this.fetchedAtMillis = snapshot.getFetchedAtMillis();
+        }
+    }
+
+    @Override
+    public synchronized void evict() {
+        snapshot = null;
+        fetchedAtMillis = -1;
+    }
+
+    @Override
+    public synchronized boolean tryAcquireRefreshLease(String owner, Duration lease) {
+        long now = clock.millis();
+        if (leaseOwner != null && !leaseOwner.equals(owner) && now < leaseExpiresAtMillis) {
+            return false;
+        }
+        leaseOwner = owner;
+        leaseExpiresAtMillis = now + lease.toMillis();
+        return true;
+    }
+
+    @Override
+    public synchronized void releaseRefreshLease(String owner) {
+        if (owner.equals(leaseOwner)) {
+            leaseOwner = null;
+        }
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        for (Consumer<Invalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    @Override
+    public Runnable subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
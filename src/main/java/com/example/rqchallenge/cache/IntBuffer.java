@@ -0,0 +1,25 @@
+package com.example.rqchallenge.cache;
+
+import java.util.Arrays;
+
+// Growable int list for building the row arrays of the snapshot indexes without boxing.
+final class IntBuffer {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
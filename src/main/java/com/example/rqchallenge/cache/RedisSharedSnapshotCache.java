@@ -0,0 +1,167 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedSnapshotCache} on Redis (or anything speaking its protocol). The snapshot is one binary value in the
+ * {@link SnapshotFileStore} layout with its fetch time under a second key, the lease is a {@code SET NX PX} key
+ * holding the owner and invalidations are JSON messages on a pub/sub channel.
+ */
+public class RedisSharedSnapshotCache implements SharedSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedSnapshotCache.class);
+
+    // Deletes the lease only if it is still ours, so a holder that overran its lease cannot release the next one.
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, byte[]> bytes;
+    private final StringRedisTemplate strings;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String snapshotKey;
+    private final String fetchedAtKey;
+    private final String leaseKey;
+    private final ChannelTopic channel;
+    private final Duration entryTtl;
+
+    /**
+     * @param entryTtl expiry of the stored snapshot, so a deployment that stopped refreshing does not leave a
+     *                 snapshot behind that nobody would serve anyway
+     */
+    public RedisSharedSnapshotCache(RedisConnectionFactory connectionFactory,
+                                    RedisMessageListenerContainer listenerContainer, ObjectMapper objectMapper,
+                                    String keyPrefix, Duration entryTtl) {
+        this.bytes = new RedisTemplate<>();
+        bytes.setConnectionFactory(connectionFactory);
+        bytes.setKeySerializer(RedisSerializer.string());
+        bytes.setValueSerializer(RedisSerializer.byteArray());
+        bytes.afterPropertiesSet();
+        this.strings = new StringRedisTemplate(connectionFactory);
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.snapshotKey = keyPrefix + ":snapshot";
+        this.fetchedAtKey = keyPrefix + ":fetched-at";
+        this.leaseKey = keyPrefix + ":refresh-lease";
+        this.channel = new ChannelTopic(keyPrefix + ":invalidations");
+        this.entryTtl = entryTtl;
+    }
+
+    @Override
+    public EmployeeSnapshot get() {
+        byte[] encoded = bytes.opsForValue().get(snapshotKey);
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            return SnapshotFileStore.decode(ByteBuffer.wrap(encoded), "at redis key " + snapshotKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long getFetchedAtMillis() {
+        String fetchedAt = strings.opsForValue().get(fetchedAtKey);
+        return fetchedAt != null ? Long.parseLong(fetchedAt) : -1;
+    }
+
+    // The snapshot goes first, so a reader that sees the new fetch time also finds the new snapshot.
+    @Override
+    public void put(EmployeeSnapshot snapshot) {
+        try {
+            bytes.opsForValue().set(snapshotKey, SnapshotFileStore.encode(snapshot), entryTtl);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        strings.opsForValue().set(fetchedAtKey, Long.toString(snapshot.getFetchedAtMillis()), entryTtl);
+    }
+
+    @Override
+    public void evict() {
+        strings.delete(fetchedAtKey);
+        bytes.delete(snapshotKey);
+    }
+
+    @Override
+    public boolean tryAcquireRefreshLease(String owner, Duration lease) {
+        return Boolean.TRUE.equals(strings.opsForValue().setIfAbsent(leaseKey, owner, lease));
+    }
+
+    @Override
+    public void releaseRefreshLease(String owner) {
+        strings.execute(RELEASE_LEASE, Collections.singletonList(leaseKey), owner);
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        EmployeeDelta delta = invalidation.getDelta();
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("origin", invalidation.getOrigin());
+        message.put("at", invalidation.getInvalidatedAtMillis());
+        message.put("type", delta.getType().name());
+        message.put("id", delta.getId());
+        message.put("employee", delta.getEmployee());
+        try {
+            strings.convertAndSend(channel.getTopic(), objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise invalidation for employee " + delta.getId(), e);
+        }
+    }
+
+    @Override
+    public Runnable subscribe(Consumer<Invalidation> listener) {
+        MessageListener messageListener = (message, pattern) -> {
+            Invalidation invalidation = parse(message.getBody());
+            if (invalidation != null) {
+                listener.accept(invalidation);
+            }
+        };
+        listenerContainer.addMessageListener(messageListener, channel);
+        return () -> listenerContainer.removeMessageListener(messageListener, channel);
+    }
+
+    private Invalidation parse(byte[] body) {
+        try {
+            JsonNode message = objectMapper.readTree(body);
+            EmployeeDelta.Type type = EmployeeDelta.Type.valueOf(message.path("type").asText());
+            String id = message.path("id").isNull() ? null : message.path("id").asText(null);
+            EmployeeDelta delta;
+            if (type == EmployeeDelta.Type.DELETED) {
+                delta = EmployeeDelta.deleted(id);
+            } else {
+                Employee employee = objectMapper.treeToValue(message.path("employee"), Employee.class);
+                delta = type == EmployeeDelta.Type.CREATED ? EmployeeDelta.created(employee)
+                        : EmployeeDelta.updated(employee);
+            }
+            return new Invalidation(message.path("origin").asText(), message.path("at").asLong(-1), delta);
+        } catch (IOException | IllegalArgumentException | NullPointerException e) {
+            logger.warn("Ignoring malformed employee invalidation on {}: {}", channel.getTopic(), e.getMessage());
+            return null;
+        }
+    }
+}
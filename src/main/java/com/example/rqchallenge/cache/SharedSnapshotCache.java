@@ -0,0 +1,67 @@
+package com.example.rqchallenge.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Second-level snapshot cache shared by every instance of the service, so that only one of them loads the employee
+ * list from upstream per refresh and the others take its copy.
+ * <p>
+ * Besides the snapshot itself it offers a refresh lease, held by whichever instance is currently loading from
+ * upstream, and a broadcast channel through which an instance announces its writes to the others.
+ * Implementations may throw unchecked exceptions when the backing store is unreachable; callers fall back to
+ * upstream.
+ */
+public interface SharedSnapshotCache {
+
+    // The shared snapshot as fetched from upstream, or null when there is none.
+    EmployeeSnapshot get();
+
+    // When the shared snapshot was fetched, or -1 when there is none; cheap enough to poll.
+    long getFetchedAtMillis();
+
+    void put(EmployeeSnapshot snapshot);
+
+    void evict();
+
+    // Takes the refresh lease unless another owner holds it; it expires after the given duration.
+    boolean tryAcquireRefreshLease(String owner, Duration lease);
+
+    // Releases the lease if the owner still holds it.
+    void releaseRefreshLease(String owner);
+
+    void publish(Invalidation invalidation);
+
+    // Delivers invalidations from every instance, this one included, until the returned handle is run.
+    Runnable subscribe(Consumer<Invalidation> listener);
+
+    /**
+     * A write made by one instance: the others apply the delta to their snapshot instead of reloading it, and stop
+     * trusting shared snapshots fetched before it.
+     */
+    final class Invalidation {
+
+        private final String origin;
+        private final long invalidatedAtMillis;
+        private final EmployeeDelta delta;
+
+        public Invalidation(String origin, long invalidatedAtMillis, EmployeeDelta delta) {
+            this.origin = origin;
+            this.invalidatedAtMillis = invalidatedAtMillis;
+            this.delta = delta;
+        }
+
+        public String getOrigin() {
+            return origin;
+        }
+
+        // On the writing instance's clock.
+        public long getInvalidatedAtMillis() {
+            return invalidatedAtMillis;
+        }
+
+        public EmployeeDelta getDelta() {
+            return delta;
+        }
+    }
+}
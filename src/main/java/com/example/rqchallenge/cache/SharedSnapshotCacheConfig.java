@@ -0,0 +1,49 @@
+package com.example.rqchallenge.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Picks the second-level snapshot cache from employee.cache.shared.type; with the default of none there is no bean
+ * and each instance loads from upstream on its own. Redis auto-configuration is excluded from the application and
+ * only imported here with the redis type, so the connection from the usual spring.redis.* settings exists only then.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.cache", name = "enabled", matchIfMissing = true)
+public class SharedSnapshotCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employee.cache.shared", name = "type", havingValue = "memory")
+    public SharedSnapshotCache inMemorySharedSnapshotCache() {
+        return new InMemorySharedSnapshotCache();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "employee.cache.shared", name = "type", havingValue = "redis")
+    @Import(RedisAutoConfiguration.class)
+    static class RedisSharedCacheConfig {
+
+        @Bean
+        public RedisMessageListenerContainer employeeInvalidationListenerContainer(
+                RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public SharedSnapshotCache redisSharedSnapshotCache(RedisConnectionFactory connectionFactory,
+                                                            RedisMessageListenerContainer listenerContainer,
+                                                            ObjectMapper objectMapper,
+                                                            EmployeeCacheProperties properties) {
+            return new RedisSharedSnapshotCache(connectionFactory, listenerContainer, objectMapper,
+                    properties.getShared().getKeyPrefix(), properties.getMaxStaleness());
+        }
+    }
+}
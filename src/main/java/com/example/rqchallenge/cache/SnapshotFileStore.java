@@ -0,0 +1,209 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persists employee snapshots to a compact binary file and maps it back in on startup.
+ * <p>
+ * Layout (big-endian): a 44 byte header of magic {@code RQES}, format version (short), reserved (short),
+ * snapshot version (long), fetched-at epoch millis (long), record count (int), payload length (long) and the
+ * CRC32 of the payload (long); then one record per employee: id, name, salary (int), age, profile image, with
+ * every string written as an int byte length (-1 for null) followed by UTF-8 bytes.
+ * Files are written to a temporary sibling and moved into place, so readers never see a partial file.
+ */
+public class SnapshotFileStore {
+
+    static final int MAGIC = 0x52514553;
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 44;
+    // Four string lengths and the salary, with every string null.
+    static final int MIN_RECORD_BYTES = 20;
+
+    private final Path file;
+
+    public SnapshotFileStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void write(EmployeeSnapshot snapshot) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.position(HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                // Not closed: closing the stream would close the channel before the header is written.
+                DataOutputStream payload = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc));
+                writeRecords(payload, snapshot);
+                payload.flush();
+
+                ByteBuffer header = header(snapshot, channel.size() - HEADER_BYTES, crc.getValue());
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the persisted snapshot, or null when there is no file. A file with the wrong magic, an unknown
+     * format version, a length mismatch, a bad checksum or a record count that disagrees with the payload is rejected
+     * with an IOException.
+     */
+    public EmployeeSnapshot read() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), "file " + file);
+        }
+    }
+
+    // The same layout as the file, in memory; used for the shared cache.
+    static byte[] encode(EmployeeSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_BYTES + snapshot.size() * 64);
+        bytes.write(new byte[HEADER_BYTES]);
+        CRC32 crc = new CRC32();
+        DataOutputStream payload = new DataOutputStream(new CheckedOutputStream(bytes, crc));
+        writeRecords(payload, snapshot);
+        payload.flush();
+        byte[] encoded = bytes.toByteArray();
+        header(snapshot, encoded.length - HEADER_BYTES, crc.getValue()).get(encoded, 0, HEADER_BYTES);
+        return encoded;
+    }
+
+    // Decodes what encode or write produced into a restored snapshot; source only names it in errors.
+    static EmployeeSnapshot decode(ByteBuffer buffer, String source) throws IOException {
+        try {
+            long size = buffer.remaining();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Snapshot " + source + " is truncated");
+            }
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Snapshot " + source + " has an unknown format");
+            }
+            short formatVersion = buffer.getShort();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Snapshot " + source + " has unsupported format version " + formatVersion);
+            }
+            buffer.getShort();
+            long version = buffer.getLong();
+            long fetchedAtMillis = buffer.getLong();
+            int count = buffer.getInt();
+            long payloadLength = buffer.getLong();
+            long expectedCrc = buffer.getLong();
+            // Bounding the count by what the payload can hold keeps a corrupt header from sizing the columns.
+            if (payloadLength != size - HEADER_BYTES || count < 0 || count > payloadLength / MIN_RECORD_BYTES) {
+                throw new IOException("Snapshot " + source + " is truncated or corrupt");
+            }
+            if (checksum(buffer.duplicate()) != expectedCrc) {
+                throw new IOException("Snapshot " + source + " failed its checksum");
+            }
+
+            EmployeeColumns.Builder rows = new EmployeeColumns.Builder(count);
+            for (int i = 0; i < count; i++) {
+                String id = readString(buffer);
+                String name = readString(buffer);
+                int salary = buffer.getInt();
+                String age = readString(buffer);
+                String profileImage = readString(buffer);
+                rows.add(id, name, salary, age, profileImage);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Snapshot " + source + " has bytes past its last record");
+            }
+            return EmployeeSnapshot.restored(version, fetchedAtMillis, rows);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot " + source + " is corrupt", e);
+        }
+    }
+
+    private static void writeRecords(DataOutputStream payload, EmployeeSnapshot snapshot) throws IOException {
+        for (Employee employee : snapshot.getEmployees()) {
+            writeString(payload, employee.getId());
+            writeString(payload, employee.getEmployeeName());
+            payload.writeInt(employee.getEmployeeSalary());
+            writeString(payload, employee.getEmployeeAge());
+            writeString(payload, employee.getProfileImage());
+        }
+    }
+
+    private static ByteBuffer header(EmployeeSnapshot snapshot, long payloadLength, long crc) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putShort((short) 0)
+                .putLong(snapshot.getVersion())
+                .putLong(snapshot.getFetchedAtMillis())
+                .putInt(snapshot.size())
+                .putLong(payloadLength)
+                .putLong(crc);
+        header.flip();
+        return header;
+    }
+
+    private static long checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[1 << 16];
+        while (payload.hasRemaining()) {
+            int length = Math.min(chunk.length, payload.remaining());
+            payload.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.cache.CachingEmployeeService;
+import com.example.rqchallenge.cache.EmployeeCacheProperties;
+import com.example.rqchallenge.cache.EmployeeChangeFeed;
+import com.example.rqchallenge.entity.EmployeeChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent events for employee changes, so clients can follow hires and terminations instead of polling the
+ * full list. Each event's SSE id is the feed's epoch and its sequence: a client reconnecting with
+ * {@code Last-Event-ID} (or {@code ?since=}) gets what it missed from the feed's buffer, or a {@code reset} event
+ * when it is too far behind or its id comes from another process or replica, and it has to reload.
+ * <p>
+ * Events are pushed from a small pool, one drain at a time per client, so a slow client only delays itself.
+ */
+@RestController
+@RequestMapping("/employees")
+@ConditionalOnProperty(prefix = "employee.cache", name = "enabled", matchIfMissing = true)
+public class EmployeeChangeFeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeChangeFeedController.class);
+
+    private static final int SENDER_THREADS = 2;
+
+    private final EmployeeChangeFeed feed;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sender;
+
+    public EmployeeChangeFeedController(CachingEmployeeService cachingService, EmployeeCacheProperties properties) {
+        this.feed = cachingService.getChangeFeed();
+        this.timeoutMillis = properties.getChangeFeedTimeout().toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = Executors.newScheduledThreadPool(SENDER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "employee-change-feed-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeat = properties.getChangeFeedHeartbeat().toMillis();
+        if (heartbeat > 0) {
+            sender.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    //localhost:8080/employees/changes?since=1k3x9f2a7b-42
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String since) {
+        String requested = since != null ? since : lastEventId;
+        long resumeAfter = requested == null || requested.trim().isEmpty()
+                ? feed.getLastSequence() : feed.resumeAfter(requested.trim());
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, resumeAfter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        logger.debug("Change feed subscriber attached after sequence {}", resumeAfter);
+        // Catch up straight away when resuming.
+        subscriber.schedule();
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.send(SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Runnable unsubscribe;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Only read and written by the drain, which never runs twice at once for a subscriber.
+        private long lastSequence;
+
+        Subscriber(SseEmitter emitter, long lastSequence) {
+            this.emitter = emitter;
+            this.lastSequence = lastSequence;
+            this.unsubscribe = feed.subscribe(this::schedule);
+        }
+
+        void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private synchronized void drain() {
+            scheduled.set(false);
+            List<EmployeeChangeEvent> events = feed.since(lastSequence);
+            if (events == null) {
+                long latest = feed.getLastSequence();
+                logger.debug("Change feed subscriber cannot resume after {}; resetting at {}", lastSequence, latest);
+                send(SseEmitter.event().id(feed.eventId(latest)).name(EmployeeChangeEvent.RESET)
+                        .data(new EmployeeChangeEvent(latest, EmployeeChangeEvent.RESET, null, null, -1),
+                                MediaType.APPLICATION_JSON));
+                lastSequence = latest;
+                return;
+            }
+            for (EmployeeChangeEvent event : events) {
+                if (!send(SseEmitter.event().id(feed.eventId(event.getSequence())).name(event.getType())
+                        .data(event, MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                lastSequence = event.getSequence();
+            }
+        }
+
+        boolean send(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return false;
+            }
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports it too, but there is no point waiting for that.
+                close();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe.run();
+                subscribers.remove(this);
+            }
+        }
+    }
+}
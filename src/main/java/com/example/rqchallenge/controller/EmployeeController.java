@@ -1,18 +1,37 @@
 package com.example.rqchallenge.controller;
 
 import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
 import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeePage;
+import com.example.rqchallenge.entity.EmployeeRows;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+import com.example.rqchallenge.execution.CachedRead;
+import com.example.rqchallenge.execution.RequestExecutor;
+import com.example.rqchallenge.service.EmployeeField;
 import com.example.rqchallenge.service.EmployeeService;
+import com.example.rqchallenge.service.NameMatch;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,141 +41,360 @@ public class EmployeeController implements IEmployeeController{
     @Autowired
     EmployeeService employeeService;
 
+    @Autowired
+    RequestExecutor requestExecutor;
+
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     //localhost:8080/employees
-    @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees(){
-        try {
-            logger.debug("Request to get all employees");
-            List<Employee> employees = employeeService.getAllEmployees();
-            logger.info("Retrieved all employees successfully");
-            return ResponseEntity.ok(employees);
-        }
-        catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(e.getStatusCode()).body(null);
-        }
-        catch (Exception e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    @CachedRead
+    @GetMapping(params = {"!page", "!size", "!sort", "!fields"})
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees(){
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Request to get all employees");
+                List<Employee> employees = employeeService.getAllEmployees();
+                logger.info("Retrieved all employees successfully");
+                return ResponseEntity.ok(employees);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
+    }
+
+    //localhost:8080/employees?page=0&size=20&sort=salary,desc&fields=employee_name,employee_salary
+    @CachedRead
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> getEmployeesPage(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) List<String> fields) {
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Request to get employees page {} size {} sort {} fields {}", page, size, sort, fields);
+                if ((page != null && page < 0) || (size != null && (size < 1 || size > MAX_PAGE_SIZE))) {
+                    throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+                }
+                // Without page or size the whole list is returned, just projected and sorted.
+                int pageSize = size != null ? size : page != null ? DEFAULT_PAGE_SIZE : Integer.MAX_VALUE;
+                int offset = (int) Math.min(Integer.MAX_VALUE, (long) (page != null ? page : 0) * pageSize);
+
+                EmployeeField sortField = null;
+                boolean descending = false;
+                if (sort != null && !sort.trim().isEmpty()) {
+                    String[] parts = sort.split(",");
+                    String name = parts[0].trim();
+                    descending = name.startsWith("-") || (parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim()));
+                    sortField = EmployeeField.from(name.startsWith("-") ? name.substring(1) : name);
+                }
+                List<EmployeeField> projection = new ArrayList<>();
+                if (fields == null || fields.isEmpty()) {
+                    projection.addAll(Arrays.asList(EmployeeField.values()));
+                } else {
+                    for (String field : new LinkedHashSet<>(fields)) {
+                        projection.add(EmployeeField.from(field));
+                    }
+                }
+
+                EmployeePage employees = employeeService.getEmployeesPage(sortField, descending, offset, pageSize);
+                logger.info("Retrieved {} of {} employees", employees.getRows().size(), employees.getTotal());
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(TOTAL_COUNT_HEADER, String.valueOf(employees.getTotal()))
+                        .body(writeProjection(employees.getRows(), projection));
+            }
+            catch (IllegalArgumentException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
     }
 
     //localhost:8080/employees/search?name=Garrett Winters
+    @CachedRead
     @GetMapping("/search")
-    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(@RequestParam String name) {
-        try {
-            logger.debug("Searching employees by name: {}", name);
-            List<Employee> employees = employeeService.getEmployeesByNameSearch(name);
-            logger.info("Employees search by name '{}' found {} results", name, employees.size());
-            return ResponseEntity.ok(employees);
-        }
-        catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(e.getStatusCode()).body(null);
-        }
-        catch (Exception e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public CompletableFuture<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@RequestParam String name) {
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Searching employees by name: {}", name);
+                List<Employee> employees = employeeService.getEmployeesByNameSearch(name);
+                logger.info("Employees search by name '{}' found {} results", name, employees.size());
+                return ResponseEntity.ok(employees);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
+    }
+
+    //localhost:8080/employees/search/garr?match=prefix&limit=20
+    @CachedRead
+    @GetMapping("/search/{searchString}")
+    public CompletableFuture<ResponseEntity<List<Employee>>> searchEmployeesByName(
+            @PathVariable String searchString,
+            @RequestParam(defaultValue = "contains") String match,
+            @RequestParam(required = false) Integer limit) {
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Searching employees by name fragment: {} ({})", searchString, match);
+                NameMatch nameMatch = NameMatch.from(match);
+                if (limit != null && limit < 1) {
+                    throw new IllegalArgumentException("limit must be at least 1");
+                }
+                // Zero asks the service for every match, which is only what an absent limit means.
+                List<Employee> employees =
+                        employeeService.searchEmployeesByName(searchString, nameMatch, limit != null ? limit : 0);
+                logger.info("Employees search by name '{}' ({}) found {} results",
+                        searchString, nameMatch, employees.size());
+                return ResponseEntity.ok(employees);
+            }
+            catch (IllegalArgumentException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
     }
 
     //localhost:8080/employees/10
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable String id) {
-        try {
-            logger.debug("Request to get employee by ID: {}", id);
-            EmployeeByIdResponse employee = employeeService.getEmployeeById(id);
-            logger.info("Employee {} with ID: {} retrieved successfully",employee.getData(), id);
-            return ResponseEntity.ok(employee.getData());
-        }
-        catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(e.getStatusCode()).body(null);
-        }
-        catch (Exception e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id) {
+        return requestExecutor.submit(() -> {
+            try {
+                logger.debug("Request to get employee by ID: {}", id);
+                EmployeeByIdResponse employee = employeeService.getEmployeeById(id);
+                logger.info("Employee {} with ID: {} retrieved successfully",employee.getData(), id);
+                return ResponseEntity.ok(employee.getData());
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
+    }
+
+    //localhost:8080/employees/batch?ids=1,2,3
+    @GetMapping("/batch")
+    public CompletableFuture<ResponseEntity<EmployeeBatchResponse>> getEmployeesByIds(@RequestParam List<String> ids) {
+        return requestExecutor.submit(() -> {
+            try {
+                logger.debug("Request to get employees by IDs: {}", ids);
+                EmployeeBatchResponse batch = employeeService.getEmployeesByIds(ids);
+                logger.info("Batch lookup of {} IDs returned {} employees and {} errors",
+                        ids.size(), batch.getData().size(), batch.getErrors().size());
+                return ResponseEntity.ok(batch);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
     }
 
     //localhost:8080/employees/highest-salary
+    @CachedRead
     @GetMapping("/highest-salary")
-    public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        try {
-            logger.debug("Request to get highest salary among all employees");
-            int highestSalary = employeeService.getHighestSalaryOfEmployees();
-            logger.info("The highest salary {} retrieved successfully", highestSalary);
-            return ResponseEntity.ok(highestSalary);
-        }
-        catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(e.getStatusCode()).body(null);
-        }
-        catch (Exception e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public CompletableFuture<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Request to get highest salary among all employees");
+                int highestSalary = employeeService.getHighestSalaryOfEmployees();
+                logger.info("The highest salary {} retrieved successfully", highestSalary);
+                return ResponseEntity.ok(highestSalary);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
+    }
+
+    //localhost:8080/employees/salary-analytics
+    @CachedRead
+    @GetMapping("/salary-analytics")
+    public CompletableFuture<ResponseEntity<SalaryAnalytics>> getSalaryAnalytics() {
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Request to get salary analytics");
+                SalaryAnalytics analytics = employeeService.getSalaryAnalytics();
+                logger.info("Salary analytics over {} employees retrieved successfully", analytics.getCount());
+                return ResponseEntity.ok(analytics);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
     }
 
     //localhost:8080/employees/top-10-highest-earning
+    @CachedRead
     @GetMapping("/top-10-highest-earning")
-    public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        try {
-            logger.debug("Request to get top 10 highest earning employees");
-            List<Employee> employees = employeeService.getTopHighestEarningEmployees(10);
-            List<String> employeeNames = employees.stream().map(Employee::getEmployeeName).collect(Collectors.toList());
-            logger.info("Top 10 highest earning employees retrieved successfully");
-            return ResponseEntity.ok(employeeNames);
-        }
-        catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(e.getStatusCode()).body(null);
-        }
-        catch (Exception e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public CompletableFuture<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        return requestExecutor.submit(employeeService.isReadCached(), () -> {
+            try {
+                logger.debug("Request to get top 10 highest earning employees");
+                List<Employee> employees = employeeService.getTopHighestEarningEmployees(10);
+                List<String> employeeNames =
+                        employees.stream().map(Employee::getEmployeeName).collect(Collectors.toList());
+                logger.info("Top 10 highest earning employees retrieved successfully");
+                return ResponseEntity.ok(employeeNames);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
     }
 
    /*
    localhost:8080/employees/create
    */
     @PostMapping("/create")
-    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
-        try {
-            logger.debug("Request to create new employee: {}", employee);
-            EmployeeByIdResponse savedEmployee = employeeService.createEmployee(employee);
-            logger.info("Employee created successfully: {}", savedEmployee);
-            return new ResponseEntity<>(savedEmployee.getData(), HttpStatus.CREATED);
-        }
-        catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(e.getStatusCode()).body(null);
-        }
-        catch (Exception e) {
-            logger.error(e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(@RequestBody Employee employee) {
+        return requestExecutor.submit(() -> {
+            try {
+                logger.debug("Request to create new employee: {}", employee);
+                EmployeeByIdResponse savedEmployee = employeeService.createEmployee(employee);
+                logger.info("Employee created successfully: {}", savedEmployee);
+                return new ResponseEntity<>(savedEmployee.getData(), HttpStatus.CREATED);
+            }
+            catch (HttpClientErrorException | HttpServerErrorException e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(e.getStatusCode()).body(null);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
     }
 
     //localhost:8080/employees/1
    @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteEmployeeById(@PathVariable String id) {
-       try {
-           logger.debug("Request to delete employee by ID: {}", id);
-           employeeService.deleteEmployee(id);
-           logger.info("Employee with ID: {} deleted successfully", id);
-           return ResponseEntity.ok("Employee with id "+ id+" got deleted successfully");
-       }
-       catch (HttpClientErrorException | HttpServerErrorException e) {
-           logger.error(e.getMessage());
-           return ResponseEntity.status(e.getStatusCode()).body(null);
-       }
-       catch (Exception e) {
-           logger.error(e.getMessage());
-           return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-       }
+    public CompletableFuture<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        return requestExecutor.submit(() -> {
+           try {
+               logger.debug("Request to delete employee by ID: {}", id);
+               employeeService.deleteEmployee(id);
+               logger.info("Employee with ID: {} deleted successfully", id);
+               return ResponseEntity.ok("Employee with id "+ id+" got deleted successfully");
+           }
+           catch (HttpClientErrorException | HttpServerErrorException e) {
+               logger.error(e.getMessage());
+               return ResponseEntity.status(e.getStatusCode()).body(null);
+           }
+           catch (Exception e) {
+               logger.error(e.getMessage());
+               return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+           }
+        });
+    }
+
+    //localhost:8080/employees/batch/create
+    @PostMapping("/batch/create")
+    public DeferredResult<ResponseEntity<EmployeeBatchWriteResponse>> createEmployees(
+            @RequestBody List<Employee> employees) {
+        return requestExecutor.submitBulk(() -> {
+            try {
+                logger.debug("Request to create {} employees", employees.size());
+                EmployeeBatchWriteResponse batch = employeeService.createEmployees(employees);
+                logger.info("Bulk create finished: {} created, {} failed", batch.getSucceeded(), batch.getFailed());
+                return ResponseEntity.ok(batch);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
+    }
+
+    //localhost:8080/employees/batch/delete
+    @PostMapping("/batch/delete")
+    public DeferredResult<ResponseEntity<EmployeeBatchWriteResponse>> deleteEmployeesByIds(
+            @RequestBody List<String> ids) {
+        return requestExecutor.submitBulk(() -> {
+            try {
+                logger.debug("Request to delete {} employees", ids.size());
+                EmployeeBatchWriteResponse batch = employeeService.deleteEmployees(ids);
+                logger.info("Bulk delete finished: {} deleted, {} failed", batch.getSucceeded(), batch.getFailed());
+                return ResponseEntity.ok(batch);
+            }
+            catch (Exception e) {
+                logger.error(e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            }
+        });
+    }
+
+    // Writes only the requested fields row by row; a snapshot page supplies them straight from its columns, so no
+    // employee is built for the response.
+    private static byte[] writeProjection(EmployeeRows rows, List<EmployeeField> fields) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + rows.size() * 16 * fields.size());
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            for (int i = 0; i < rows.size(); i++) {
+                generator.writeStartObject();
+                for (EmployeeField field : fields) {
+                    field.write(generator, rows, i);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
     }
 }
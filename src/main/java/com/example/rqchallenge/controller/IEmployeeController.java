@@ -1,34 +1,63 @@
 package com.example.rqchallenge.controller;
 
 import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
+import com.example.rqchallenge.entity.SalaryAnalytics;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public interface IEmployeeController {
 
-    @GetMapping()
-    ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
+    @GetMapping(params = {"!page", "!size", "!sort", "!fields"})
+    CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees() throws IOException;
+
+    @GetMapping(produces = "application/json")
+    CompletableFuture<ResponseEntity<byte[]>> getEmployeesPage(@RequestParam(required = false) Integer page,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) List<String> fields);
+
+    @GetMapping("/search")
+    CompletableFuture<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@RequestParam String name);
 
     @GetMapping("/search/{searchString}")
-    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
+    CompletableFuture<ResponseEntity<List<Employee>>> searchEmployeesByName(
+            @PathVariable String searchString,
+            @RequestParam(defaultValue = "contains") String match,
+            @RequestParam(required = false) Integer limit);
 
     @GetMapping("/{id}")
-    ResponseEntity<Employee> getEmployeeById(@PathVariable String id);
+    CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id);
+
+    @GetMapping("/batch")
+    CompletableFuture<ResponseEntity<EmployeeBatchResponse>> getEmployeesByIds(@RequestParam List<String> ids);
 
     @GetMapping("/highestSalary")
-    ResponseEntity<Integer> getHighestSalaryOfEmployees();
+    CompletableFuture<ResponseEntity<Integer>> getHighestSalaryOfEmployees();
+
+    @GetMapping("/salary-analytics")
+    CompletableFuture<ResponseEntity<SalaryAnalytics>> getSalaryAnalytics();
 
     @GetMapping("/topTenHighestEarningEmployeeNames")
-    ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames();
+    CompletableFuture<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames();
 
     @PostMapping()
-    ResponseEntity<Employee> createEmployee(@RequestBody Employee employeeInput);
+    CompletableFuture<ResponseEntity<Employee>> createEmployee(@RequestBody Employee employeeInput);
 
     @DeleteMapping("/{id}")
-    ResponseEntity<String> deleteEmployeeById(@PathVariable String id);
+    CompletableFuture<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id);
+
+    @PostMapping("/batch/create")
+    DeferredResult<ResponseEntity<EmployeeBatchWriteResponse>> createEmployees(@RequestBody List<Employee> employees);
+
+    @PostMapping("/batch/delete")
+    DeferredResult<ResponseEntity<EmployeeBatchWriteResponse>> deleteEmployeesByIds(@RequestBody List<String> ids);
 
 }
@@ -0,0 +1,125 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.service.NameMatch;
+import com.example.rqchallenge.service.ReactiveEmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Same endpoints as {@link EmployeeController} under /reactive/employees, served by {@link ReactiveEmployeeService}
+ * so both stacks can be driven side by side with the same load.
+ */
+@RestController
+@RequestMapping("/reactive/employees")
+@ConditionalOnProperty(prefix = "employee.reactive", name = "enabled")
+public class ReactiveEmployeeController {
+
+    @Autowired
+    ReactiveEmployeeService reactiveEmployeeService;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmployeeController.class);
+
+    //localhost:8080/reactive/employees
+    @GetMapping
+    public Mono<ResponseEntity<List<Employee>>> getAllEmployees() {
+        logger.debug("Request to get all employees");
+        return reactiveEmployeeService.getAllEmployees()
+                .collectList()
+                .map(employees -> ResponseEntity.ok(employees))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/search?name=Garrett Winters
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@RequestParam String name) {
+        logger.debug("Searching employees by name: {}", name);
+        return reactiveEmployeeService.getEmployeesByNameSearch(name)
+                .collectList()
+                .map(employees -> ResponseEntity.ok(employees))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/search/garr?match=prefix&limit=20
+    @GetMapping("/search/{searchString}")
+    public Mono<ResponseEntity<List<Employee>>> searchEmployeesByName(@PathVariable String searchString,
+                                                                      @RequestParam(defaultValue = "contains") String match,
+                                                                      @RequestParam(required = false) Integer limit) {
+        logger.debug("Searching employees by name fragment: {} ({})", searchString, match);
+        return Mono.fromCallable(() -> NameMatch.from(match))
+                .flatMap(nameMatch -> reactiveEmployeeService
+                        .searchEmployeesByName(searchString, nameMatch, limit != null ? limit : 0)
+                        .collectList())
+                .map(employees -> ResponseEntity.ok(employees))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/10
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id) {
+        logger.debug("Request to get employee by ID: {}", id);
+        return reactiveEmployeeService.getEmployeeById(id)
+                .map(employee -> ResponseEntity.ok(employee.getData()))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/highest-salary
+    @GetMapping("/highest-salary")
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        logger.debug("Request to get highest salary among all employees");
+        return reactiveEmployeeService.getHighestSalaryOfEmployees()
+                .map(highestSalary -> ResponseEntity.ok(highestSalary))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/top-10-highest-earning
+    @GetMapping("/top-10-highest-earning")
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        logger.debug("Request to get top 10 highest earning employees");
+        return reactiveEmployeeService.getTopHighestEarningEmployees(10)
+                .map(Employee::getEmployeeName)
+                .collectList()
+                .map(employeeNames -> ResponseEntity.ok(employeeNames))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/create
+    @PostMapping("/create")
+    public Mono<ResponseEntity<Employee>> createEmployee(@RequestBody Employee employee) {
+        logger.debug("Request to create new employee: {}", employee);
+        return reactiveEmployeeService.createEmployee(employee)
+                .map(EmployeeByIdResponse::getData)
+                .map(savedEmployee -> new ResponseEntity<>(savedEmployee, HttpStatus.CREATED))
+                .onErrorResume(this::errorResponse);
+    }
+
+    //localhost:8080/reactive/employees/1
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        logger.debug("Request to delete employee by ID: {}", id);
+        return reactiveEmployeeService.deleteEmployee(id)
+                .then(Mono.fromCallable(() -> ResponseEntity.ok("Employee with id " + id + " got deleted successfully")))
+                .onErrorResume(this::errorResponse);
+    }
+
+    private <T> Mono<ResponseEntity<T>> errorResponse(Throwable e) {
+        logger.error(e.getMessage());
+        if (e instanceof WebClientResponseException) {
+            return Mono.just(ResponseEntity.status(((WebClientResponseException) e).getStatusCode()).<T>body(null));
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).<T>body(null));
+        }
+        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<T>body(null));
+    }
+}
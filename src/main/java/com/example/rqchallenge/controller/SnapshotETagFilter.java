@@ -0,0 +1,216 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.cache.CachingEmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Conditional GETs for the polled read endpoints, keyed on the employee snapshot version. While the snapshot is
+ * within its TTL, a matching If-None-Match is answered with 304 before the controller runs. Otherwise the first
+ * response per URL and version is kept both plain and gzipped, and later reads of that version are served from
+ * those bytes for as long as it stays fresh.
+ * <p>
+ * ETags carry a per-process epoch as well as the version, since versions start over when the process restarts.
+ */
+@Component
+@ConditionalOnProperty(prefix = "employee.cache", name = "enabled", matchIfMissing = true)
+public class SnapshotETagFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotETagFilter.class);
+
+    private static final Set<String> PATHS = new HashSet<>(Arrays.asList(
+            "/employees", "/employees/highest-salary", "/employees/top-10-highest-earning",
+            "/employees/salary-analytics"));
+
+    // Distinct URLs (query strings included) kept; the cache is dropped wholesale past this.
+    private static final int MAX_CACHED_RESPONSES = 256;
+
+    private static final String PENDING_ATTRIBUTE = SnapshotETagFilter.class.getName() + ".PENDING";
+
+    private final CachingEmployeeService cachingService;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    public SnapshotETagFilter(CachingEmployeeService cachingService) {
+        this.cachingService = cachingService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || !PATHS.contains(path);
+    }
+
+    // Handlers return futures, so the body is usually rendered on the async dispatch rather than the first one.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            Pending pending = (Pending) request.getAttribute(PENDING_ATTRIBUTE);
+            chain.doFilter(request, response);
+            ContentCachingResponseWrapper wrapper =
+                    WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (pending != null && wrapper != null && !isAsyncStarted(request)) {
+                complete(pending, wrapper);
+            }
+            return;
+        }
+
+        // Never loads or refreshes here, on the servlet thread; the handler does that where it is allowed to block.
+        long version = cachingService.getSnapshotVersion();
+        if (version < 0) {
+            logger.debug("No snapshot yet for conditional GET of {}", request.getRequestURI());
+            chain.doFilter(request, response);
+            return;
+        }
+        String etag = "\"" + epoch + "-" + version + "\"";
+        // Past its TTL the snapshot is only answered through the handler, whose read starts the refresh that moves
+        // the version on; short-circuiting every poll would keep a stale version forever.
+        boolean fresh = cachingService.isSnapshotFresh();
+        if (fresh && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return;
+        }
+
+        String key = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI();
+        boolean acceptsGzip = acceptsGzip(request);
+        CachedResponse cached = responses.get(key);
+        if (fresh && cached != null && cached.version == version) {
+            write(response, cached, etag, acceptsGzip);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        Pending pending = new Pending(key, version, etag, acceptsGzip);
+        if (isAsyncStarted(request)) {
+            request.setAttribute(PENDING_ATTRIBUTE, pending);
+        } else {
+            complete(pending, wrapper);
+        }
+    }
+
+    private void complete(Pending pending, ContentCachingResponseWrapper wrapper) throws IOException {
+        // Only cache what was rendered from the version the ETag names.
+        if (wrapper.getStatus() == HttpStatus.OK.value() && cachingService.getSnapshotVersion() == pending.version) {
+            byte[] body = wrapper.getContentAsByteArray();
+            CachedResponse cached = new CachedResponse(pending.version, wrapper.getContentType(), body, gzip(body));
+            if (responses.size() >= MAX_CACHED_RESPONSES) {
+                responses.clear();
+            }
+            responses.put(pending.key, cached);
+            wrapper.resetBuffer();
+            write((HttpServletResponse) wrapper.getResponse(), cached, pending.etag, pending.acceptsGzip);
+        } else {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void write(HttpServletResponse response, CachedResponse cached, String etag, boolean gzip)
+            throws IOException {
+        byte[] body = gzip ? cached.gzipped : cached.plain;
+        response.setStatus(HttpStatus.OK.value());
+        if (cached.contentType != null) {
+            response.setContentType(cached.contentType);
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class CachedResponse {
+
+        private final long version;
+        private final String contentType;
+        private final byte[] plain;
+        private final byte[] gzipped;
+
+        CachedResponse(long version, String contentType, byte[] plain, byte[] gzipped) {
+            this.version = version;
+            this.contentType = contentType;
+            this.plain = plain;
+            this.gzipped = gzipped;
+        }
+    }
+
+    // What the first dispatch decided, carried over to the async dispatch that renders the body.
+    private static final class Pending {
+
+        private final String key;
+        private final long version;
+        private final String etag;
+        private final boolean acceptsGzip;
+
+        Pending(String key, long version, String etag, boolean acceptsGzip) {
+            this.key = key;
+            this.version = version;
+            this.etag = etag;
+            this.acceptsGzip = acceptsGzip;
+        }
+    }
+}
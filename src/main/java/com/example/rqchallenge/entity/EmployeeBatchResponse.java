@@ -0,0 +1,19 @@
+package com.example.rqchallenge.entity;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Setter
+@Getter
+public class EmployeeBatchResponse {
+
+    // Employees that were found, in request order.
+    private List<Employee> data = new ArrayList<>();
+
+    // Requested id -> reason it could not be returned.
+    private Map<String, String> errors = new LinkedHashMap<>();
+}
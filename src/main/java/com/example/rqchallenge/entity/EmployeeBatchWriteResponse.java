@@ -0,0 +1,24 @@
+package com.example.rqchallenge.entity;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+public class EmployeeBatchWriteResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<EmployeeWriteResult> results = new ArrayList<>();
+
+    public void add(EmployeeWriteResult result) {
+        results.add(result);
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.rqchallenge.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeChangeEvent {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    // The feed lost track (buffer overrun or cache invalidated); clients should reload the full list.
+    public static final String RESET = "reset";
+
+    // Increases by one per event; sent as the SSE id so a reconnect can resume after it.
+    private final long sequence;
+
+    private final String type;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String id;
+
+    // The employee after the change; null for deletions and resets.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Employee data;
+
+    // Snapshot version the change produced.
+    private final long version;
+}
@@ -0,0 +1,23 @@
+package com.example.rqchallenge.entity;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class EmployeePage {
+
+    // The requested slice, in sort order.
+    private final List<Employee> data;
+
+    // The same slice for writers that only need some fields; may read straight from a snapshot's columns.
+    private final EmployeeRows rows;
+
+    // Employees across all pages.
+    private final int total;
+
+    public EmployeePage(List<Employee> data, int total) {
+        this(data, EmployeeRows.of(data), total);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.rqchallenge.entity;
+
+import java.util.List;
+
+/**
+ * Employees read field by field by position, so a writer can serialise rows held as columns without building an
+ * {@link Employee} for each.
+ */
+public interface EmployeeRows {
+
+    int size();
+
+    String id(int index);
+
+    String name(int index);
+
+    int salary(int index);
+
+    String age(int index);
+
+    String profileImage(int index);
+
+    // Rows backed by employees that already exist.
+    static EmployeeRows of(List<Employee> employees) {
+        return new EmployeeRows() {
+            @Override
+            public int size() {
+                return employees.size();
+            }
+
+            @Override
+            public String id(int index) {
+                return employees.get(index).getId();
+            }
+
+            @Override
+            public String name(int index) {
+                return employees.get(index).getEmployeeName();
+            }
+
+            @Override
+            public int salary(int index) {
+                return employees.get(index).getEmployeeSalary();
+            }
+
+            @Override
+            public String age(int index) {
+                return employees.get(index).getEmployeeAge();
+            }
+
+            @Override
+            public String profileImage(int index) {
+                return employees.get(index).getProfileImage();
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.rqchallenge.entity;
+
+import lombok.*;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeWriteResult {
+
+    // Position of the item in the request.
+    private int index;
+    private String id;
+    private boolean success;
+    private Employee data;
+    private String error;
+}
@@ -0,0 +1,63 @@
+package com.example.rqchallenge.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class SalaryAnalytics {
+
+    private final long count;
+
+    // Null when there are no employees.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer min;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer max;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Double mean;
+
+    private final long sum;
+
+    // Exact nearest-rank percentiles, keyed "p50", "p90", "p99".
+    private final Map<String, Integer> percentiles;
+
+    private final List<Bucket> histogram;
+
+    private final List<AgeBand> ageBands;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Bucket {
+
+        // Inclusive lower bound; null for the first bucket, which also holds anything below zero.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private final Integer from;
+
+        // Exclusive upper bound; null for the last bucket.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private final Integer to;
+
+        private final long count;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class AgeBand {
+
+        // "25-34", "65+", or "unknown" for ages that are missing or not a number.
+        private final String band;
+
+        private final long count;
+
+        private final long sum;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private final Double mean;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.rqchallenge.execution;
+
+/**
+ * Concurrency limit for one endpoint that resizes itself from the latency it sees, after the gradient algorithms
+ * used for TCP congestion control. A short-term average response time is compared with a long-term one: while the
+ * short one is worse by more than the tolerance the limit shrinks in proportion, down to half per step, and
+ * otherwise it grows by a queueing allowance of about sqrt(limit). Requests that were shed or timed out further
+ * down (503 or 504) cut it multiplicatively, as in AIMD.
+ * <p>
+ * Part of the limit is kept for priority requests: the others may only use {@code 1 - reservedShare} of it.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_ALPHA = 0.3;
+    private static final double LONG_ALPHA = 0.005;
+    // Fraction of the way the limit moves towards its new target per sample, so one outlier cannot swing it.
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final double reservedShare;
+    private double limit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+                             double reservedShare) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1, tolerance);
+        this.backoffRatio = backoffRatio;
+        this.reservedShare = Math.min(1, Math.max(0, reservedShare));
+        this.limit = clamp(initialLimit);
+    }
+
+    synchronized boolean tryAcquire(boolean priority) {
+        int allowed = priority ? (int) limit : Math.max(1, (int) (limit * (1 - reservedShare)));
+        if (inFlight >= allowed) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    synchronized void release(long rttNanos, boolean dropped) {
+        int wasInFlight = inFlight--;
+        if (dropped) {
+            limit = clamp(limit * backoffRatio);
+            return;
+        }
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_ALPHA;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_ALPHA;
+        // After a slow spell the long average lags far behind; pull it down so the limit can recover.
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / Math.max(1, shortRttNanos)));
+        double target = limit * gradient + Math.sqrt(limit);
+        // Growing while mostly idle would only mean the limit has not been tested.
+        if (target > limit && wasInFlight * 2 < limit) {
+            return;
+        }
+        limit = clamp(limit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
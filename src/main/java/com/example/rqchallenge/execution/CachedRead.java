@@ -0,0 +1,19 @@
+package com.example.rqchallenge.execution;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler the employee snapshot answers whenever reads are cached, unlike the by-id and batch lookups, which
+ * go upstream on a miss, and the writes. While {@code EmployeeService#isReadCached()} holds such a handler runs inline
+ * rather than through {@link RequestExecutor}'s pool, and {@link ConcurrencyLimitInterceptor} treats it as a
+ * priority request.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedRead {
+}
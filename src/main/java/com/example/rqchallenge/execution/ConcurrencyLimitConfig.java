@@ -0,0 +1,36 @@
+package com.example.rqchallenge.execution;
+
+import com.example.rqchallenge.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers {@link ConcurrencyLimitInterceptor} on the employee endpoints. The change feed is left out: its
+ * connections are long-lived by design and would hold a permit for as long as they stay open.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.execution.concurrency-limit", name = "enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ExecutionProperties properties;
+    private final EmployeeService employeeService;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitConfig(ExecutionProperties properties, EmployeeService employeeService,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.employeeService = employeeService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(properties.getConcurrencyLimit(), employeeService,
+                        meterRegistry))
+                .addPathPatterns("/employees", "/employees/**")
+                .excludePathPatterns("/employees/changes");
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.rqchallenge.execution;
+
+import com.example.rqchallenge.service.EmployeeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Puts an {@link AdaptiveConcurrencyLimit} in front of each endpoint (method and path pattern), so a slow upstream
+ * backs up only the endpoints that depend on it and cheap ones keep answering. A request over the limit is shed
+ * straight away with 503 and Retry-After rather than left to queue.
+ * <p>
+ * Handlers marked {@link CachedRead} are priority requests while reads are cached and may use the whole limit;
+ * writes and reads that may go upstream, such as by-id and batch lookups, only get the unreserved part of it.
+ * <p>
+ * Handlers complete asynchronously, so the permit taken on the first dispatch is kept in a request attribute and
+ * released when the async dispatch completes. Metrics: {@code employee.concurrency.limit} and
+ * {@code employee.concurrency.in.flight} gauges and the {@code employee.concurrency.rejected} counter, by endpoint.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final ExecutionProperties.ConcurrencyLimit properties;
+    private final EmployeeService employeeService;
+    private final MeterRegistry meterRegistry;
+    private final String retryAfterSeconds;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(ExecutionProperties.ConcurrencyLimit properties,
+                                       EmployeeService employeeService, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.employeeService = employeeService;
+        this.meterRegistry = meterRegistry;
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().getSeconds()));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            // Async dispatch of a request that already holds its permit.
+            return true;
+        }
+        String endpoint = endpoint(request);
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(endpoint, this::newLimit);
+        boolean priority = handler instanceof HandlerMethod
+                && ((HandlerMethod) handler).hasMethodAnnotation(CachedRead.class) && employeeService.isReadCached();
+        if (!limit.tryAcquire(priority)) {
+            Counter.builder("employee.concurrency.rejected")
+                    .description("Requests shed with 503 because their endpoint was at its concurrency limit")
+                    .tag("endpoint", endpoint)
+                    .tag("priority", Boolean.toString(priority))
+                    .register(meterRegistry)
+                    .increment();
+            logger.debug("Shedding {}: {} in flight against a limit of {}", endpoint, limit.getInFlight(),
+                    limit.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limit, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit == null || request.isAsyncStarted()) {
+            return;
+        }
+        int status = response.getStatus();
+        boolean dropped = status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value();
+        permit.release(dropped);
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String endpoint) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties.getInitialLimit(),
+                properties.getMinLimit(), properties.getMaxLimit(), properties.getLatencyTolerance(),
+                properties.getBackoffRatio(), properties.getReservedForCachedReads());
+        Gauge.builder("employee.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit of the endpoint")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("employee.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static final class Permit {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(AdaptiveConcurrencyLimit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+
+        void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - startNanos, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.rqchallenge.execution;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    // Executor for parallel fan-out of blocking upstream calls.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService upstreamExecutor(ExecutionProperties properties) {
+        if (properties.isVirtualThreads()) {
+            Optional<ExecutorService> virtual = VirtualThreads.newThreadPerTaskExecutor();
+            if (virtual.isPresent()) {
+                logger.info("Upstream fan-out runs on virtual threads");
+                return virtual.get();
+            }
+            logger.warn("Virtual threads requested but not supported by this JVM; using {} platform threads",
+                    properties.getPlatformThreads());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(properties.getPlatformThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "upstream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employee.execution", name = "virtual-threads")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestHandling() {
+        return protocolHandler -> {
+            Optional<ExecutorService> virtual = VirtualThreads.newThreadPerTaskExecutor();
+            if (virtual.isPresent()) {
+                logger.info("Tomcat request handling runs on virtual threads");
+                protocolHandler.setExecutor(virtual.get());
+            } else {
+                logger.warn("Virtual threads requested but not supported by this JVM; keeping the Tomcat thread pool");
+            }
+        };
+    }
+}
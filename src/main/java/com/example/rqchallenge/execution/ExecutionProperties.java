@@ -0,0 +1,59 @@
+package com.example.rqchallenge.execution;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.execution")
+public class ExecutionProperties {
+
+    // Run Tomcat request handling and upstream fan-out on virtual threads (Java 21+ runtime only).
+    private boolean virtualThreads = false;
+
+    // Size of the platform thread pool used for upstream fan-out when virtual threads are off or unavailable.
+    private int platformThreads = 64;
+
+    // Threads that async controller handlers run their upstream-bound service calls on.
+    private int requestThreads = 32;
+
+    // Handlers waiting for a request thread; beyond this requests are answered with 503. With virtual threads
+    // each handler gets its own thread and up to requestThreads + requestQueueCapacity run at once.
+    private int requestQueueCapacity = 200;
+
+    // Deadline for a handler running on the request pool; past it the response is 504.
+    private Duration requestTimeout = Duration.ofSeconds(15);
+
+    // Deadline for bulk create and delete, which go upstream at the paced write rate; zero for none.
+    private Duration bulkRequestTimeout = Duration.ofMinutes(10);
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+
+        // Adaptive per-endpoint limit on requests in flight; over it requests are shed with 503.
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        // How far recent latency may rise above the long-term average before the limit shrinks.
+        private double latencyTolerance = 2.0;
+
+        // Factor the limit is cut by when a request ends in 503 or 504.
+        private double backoffRatio = 0.9;
+
+        // Share of each limit only reads the cache can answer may use; writes and upstream-bound reads get the rest.
+        private double reservedForCachedReads = 0.2;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
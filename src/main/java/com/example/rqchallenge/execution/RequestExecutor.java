@@ -0,0 +1,190 @@
+package com.example.rqchallenge.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs controller handlers off the servlet thread. Handlers that can wait on upstream are submitted to a bounded
+ * pool and their {@link CompletableFuture} is returned to Spring MVC, which releases the Tomcat thread until it
+ * completes. Handlers that will be answered from the cache run inline, since a thread hop would only add latency.
+ * <p>
+ * Each submitted request has a deadline: past it the response is 504 and the task is interrupted. A full queue
+ * is answered with 503 and Retry-After instead of queueing without bound. With virtual threads enabled handlers
+ * get a virtual thread each, and a semaphore sized like the pool plus its queue takes the place of the queue.
+ * <p>
+ * Bulk handlers, which run at the paced upstream write rate, get a longer deadline of their own and a
+ * {@link DeferredResult} whose async timeout outlasts it, since Spring MVC's default would cut them off first.
+ */
+@Component
+public class RequestExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestExecutor.class);
+
+    // How much longer than a bulk deadline the MVC async timeout runs, so the 504 is ours and not the container's.
+    private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 5000;
+
+    private final ExecutorService executor;
+    // Null when the executor bounds itself.
+    private final Semaphore admission;
+    private final ScheduledExecutorService timer;
+    private final long timeoutMillis;
+    private final long bulkTimeoutMillis;
+
+    @Autowired
+    public RequestExecutor(ExecutionProperties properties) {
+        this(properties.isVirtualThreads() ? VirtualThreads.newThreadPerTaskExecutor() : Optional.empty(),
+                properties);
+    }
+
+    private RequestExecutor(Optional<ExecutorService> virtual, ExecutionProperties properties) {
+        this(virtual.orElseGet(() -> newPool(properties)),
+                virtual.isPresent() ? properties.getRequestThreads() + Math.max(1, properties.getRequestQueueCapacity())
+                        : 0,
+                properties.getRequestTimeout(), properties.getBulkRequestTimeout());
+        if (virtual.isPresent()) {
+            logger.info("Async request handlers run on virtual threads, at most {} at once",
+                    admission.availablePermits());
+        }
+    }
+
+    public RequestExecutor(ExecutorService executor, Duration timeout) {
+        this(executor, 0, timeout);
+    }
+
+    // With maxInFlight above zero, handlers beyond it are answered with 503; for executors without a queue bound.
+    public RequestExecutor(ExecutorService executor, int maxInFlight, Duration timeout) {
+        this(executor, maxInFlight, timeout, timeout);
+    }
+
+    public RequestExecutor(ExecutorService executor, int maxInFlight, Duration timeout, Duration bulkTimeout) {
+        this.executor = executor;
+        this.admission = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+        this.timeoutMillis = timeout.toMillis();
+        this.bulkTimeoutMillis = bulkTimeout.toMillis();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> submit(Supplier<ResponseEntity<T>> handler) {
+        return submit(false, handler);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> submit(boolean inline, Supplier<ResponseEntity<T>> handler) {
+        if (inline) {
+            return CompletableFuture.completedFuture(handler.get());
+        }
+        return submit(handler, timeoutMillis);
+    }
+
+    public <T> DeferredResult<ResponseEntity<T>> submitBulk(Supplier<ResponseEntity<T>> handler) {
+        // A zero timeout means none, for the container as for the deadline.
+        DeferredResult<ResponseEntity<T>> result =
+                new DeferredResult<>(bulkTimeoutMillis > 0 ? bulkTimeoutMillis + ASYNC_TIMEOUT_MARGIN_MILLIS : 0L);
+        submit(handler, bulkTimeoutMillis).thenAccept(result::setResult);
+        return result;
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> submit(Supplier<ResponseEntity<T>> handler, long deadlineMillis) {
+        if (admission != null && !admission.tryAcquire()) {
+            return saturated();
+        }
+        CompletableFuture<ResponseEntity<T>> response = new CompletableFuture<>();
+        // Whoever claims the task first gives back its admission permit: the task when it runs, or the deadline
+        // when it cancels a task that never started.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                ResponseEntity<T> result;
+                try {
+                    result = handler.get();
+                } catch (Throwable e) {
+                    // Handlers map their own errors; this only catches what escapes them.
+                    logger.error("Unhandled error in request handler", e);
+                    result = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+                } finally {
+                    releaseAdmission();
+                }
+                response.complete(result);
+            });
+        } catch (RejectedExecutionException e) {
+            releaseAdmission();
+            return saturated();
+        }
+        if (deadlineMillis > 0) {
+            ScheduledFuture<?> deadline = timer.schedule(() -> {
+                if (response.complete(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).<T>body(null))) {
+                    logger.warn("Request exceeded its {} ms deadline", deadlineMillis);
+                    task.cancel(true);
+                    if (claimed.compareAndSet(false, true)) {
+                        releaseAdmission();
+                    }
+                }
+            }, deadlineMillis, TimeUnit.MILLISECONDS);
+            response.whenComplete((result, error) -> deadline.cancel(false));
+        }
+        return response;
+    }
+
+    private void releaseAdmission() {
+        if (admission != null) {
+            admission.release();
+        }
+    }
+
+    private static <T> CompletableFuture<ResponseEntity<T>> saturated() {
+        logger.warn("Request executor saturated; rejecting request");
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .<T>body(null));
+    }
+
+    private static ExecutorService newPool(ExecutionProperties properties) {
+        AtomicInteger counter = new AtomicInteger();
+        int threads = properties.getRequestThreads();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getRequestQueueCapacity())), runnable -> {
+                    Thread thread = new Thread(runnable, "request-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
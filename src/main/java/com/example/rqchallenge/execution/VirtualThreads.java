@@ -0,0 +1,42 @@
+package com.example.rqchallenge.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reflective access to {@code Executors.newVirtualThreadPerTaskExecutor()}. The build still targets Java 8, so
+ * virtual threads are only available when the application runs on Java 21 or newer; on older JVMs no executor is
+ * returned and callers keep their platform thread pool.
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+    }
+
+    public static Optional<ExecutorService> newThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Method lookup() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // On Java 19/20 the method exists but fails unless preview features are enabled.
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeRows;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Employee attributes addressable by the sort and fields parameters, named as they appear in JSON. Each knows
+ * how to order employees and how to write its own value, so a projection never builds intermediate objects.
+ */
+public enum EmployeeField {
+
+    ID("id", Comparator.comparing(Employee::getId, Comparator.nullsLast(EmployeeField::compareNumeric))) {
+        @Override
+        public void write(JsonGenerator generator, EmployeeRows rows, int index) throws IOException {
+            generator.writeStringField(jsonName, rows.id(index));
+        }
+    },
+    NAME("employee_name", Comparator.comparing(employee -> NameMatch.normalize(employee.getEmployeeName()),
+            Comparator.nullsLast(Comparator.<String>naturalOrder()))) {
+        @Override
+        public void write(JsonGenerator generator, EmployeeRows rows, int index) throws IOException {
+            generator.writeStringField(jsonName, rows.name(index));
+        }
+    },
+    SALARY("employee_salary", Comparator.comparingInt(Employee::getEmployeeSalary)) {
+        @Override
+        public void write(JsonGenerator generator, EmployeeRows rows, int index) throws IOException {
+            generator.writeNumberField(jsonName, rows.salary(index));
+        }
+    },
+    AGE("employee_age", Comparator.comparing(Employee::getEmployeeAge,
+            Comparator.nullsLast(EmployeeField::compareNumeric))) {
+        @Override
+        public void write(JsonGenerator generator, EmployeeRows rows, int index) throws IOException {
+            generator.writeStringField(jsonName, rows.age(index));
+        }
+    },
+    PROFILE_IMAGE("profile_image", Comparator.comparing(Employee::getProfileImage,
+            Comparator.nullsLast(Comparator.<String>naturalOrder()))) {
+        @Override
+        public void write(JsonGenerator generator, EmployeeRows rows, int index) throws IOException {
+            generator.writeStringField(jsonName, rows.profileImage(index));
+        }
+    };
+
+    protected final String jsonName;
+    private final Comparator<Employee> ascending;
+
+    EmployeeField(String jsonName, Comparator<Employee> ascending) {
+        this.jsonName = jsonName;
+        this.ascending = ascending;
+    }
+
+    // Writes this field of the row at index.
+    public abstract void write(JsonGenerator generator, EmployeeRows rows, int index) throws IOException;
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public Comparator<Employee> ascending() {
+        return ascending;
+    }
+
+    // Accepts the JSON name ("employee_salary") or the short form ("salary").
+    public static EmployeeField from(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (EmployeeField field : values()) {
+            if (field.jsonName.equals(normalized) || field.jsonName.equals("employee_" + normalized)
+                    || field.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown employee field " + value);
+    }
+
+    // Upstream sends ids and ages as strings: numeric values sort as numbers, ahead of any non-numeric ones.
+    private static int compareNumeric(String a, String b) {
+        Long left = parseLong(a);
+        Long right = parseLong(b);
+        if (left != null && right != null) {
+            return Long.compare(left, right);
+        }
+        if (left != null || right != null) {
+            return left != null ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
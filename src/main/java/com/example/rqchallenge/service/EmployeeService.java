@@ -1,7 +1,11 @@
 package com.example.rqchallenge.service;
 
 import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
 import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeePage;
+import com.example.rqchallenge.entity.SalaryAnalytics;
 
 import java.util.List;
 
@@ -9,15 +13,36 @@ public interface EmployeeService {
 
     List<Employee> getAllEmployees();
 
+    // True when list, search and salary reads would be answered locally rather than by a call upstream.
+    default boolean isReadCached() {
+        return false;
+    }
+
+    // Up to limit employees starting at offset, ordered by sort (null keeps upstream order).
+    EmployeePage getEmployeesPage(EmployeeField sort, boolean descending, int offset, int limit);
+
     List<Employee> getEmployeesByNameSearch(String name);
 
+    // A limit of zero or less returns every match.
+    List<Employee> searchEmployeesByName(String query, NameMatch match, int limit);
+
     EmployeeByIdResponse getEmployeeById(String id);
 
+    // Looks up every id, reporting the ones that fail in the response instead of failing the whole batch.
+    EmployeeBatchResponse getEmployeesByIds(List<String> ids);
+
     int getHighestSalaryOfEmployees();
 
     List<Employee> getTopHighestEarningEmployees(int size);
 
+    // Salary summary, percentiles, histogram and age-band breakdown over all employees.
+    SalaryAnalytics getSalaryAnalytics();
+
     EmployeeByIdResponse createEmployee(Employee employee);
 
     void deleteEmployee(String id);
+
+    EmployeeBatchWriteResponse createEmployees(List<Employee> employees);
+
+    EmployeeBatchWriteResponse deleteEmployees(List<String> ids);
 }
@@ -1,75 +1,341 @@
 package com.example.rqchallenge.service;
 
 import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
 import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeePage;
 import com.example.rqchallenge.entity.EmployeeResponse;
+import com.example.rqchallenge.entity.EmployeeWriteResult;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+import com.example.rqchallenge.upstream.AdaptivePacer;
+import com.example.rqchallenge.upstream.EmployeeStreamReader;
+import com.example.rqchallenge.upstream.SingleFlight;
+import com.example.rqchallenge.upstream.UpstreamApiProperties;
+import com.example.rqchallenge.upstream.UpstreamResilienceProperties;
+import com.example.rqchallenge.upstream.UpstreamUnavailableException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
-    private static final String BASE_URL = "https://dummy.restapiexample.com/api/v1";
-
     private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final EmployeeStreamReader employeeStreamReader;
+    private final boolean streamingReads;
+    private final Executor upstreamExecutor;
+    private final int maxFanOut;
+    private final int maxWriteConcurrency;
+    // Shared by all bulk writes, since they draw on the same upstream quota.
+    private final AdaptivePacer writePacer;
+
+    // Concurrent identical GETs share one upstream round trip.
+    private final SingleFlight<String, EmployeeResponse> employeesFlight = new SingleFlight<>();
+    private final SingleFlight<String, EmployeeByIdResponse> employeeByIdFlight = new SingleFlight<>();
 
     public EmployeeServiceImpl(RestTemplate restTemplate) {
+        this(restTemplate, new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false),
+                new UpstreamApiProperties(), new UpstreamResilienceProperties(), Runnable::run);
+    }
+
+    // Fan-out and write pacing are fitted to the client-side rate limit, so they queue on it without tripping it.
+    @Autowired
+    public EmployeeServiceImpl(RestTemplate restTemplate, ObjectMapper objectMapper, UpstreamApiProperties properties,
+                               UpstreamResilienceProperties resilience,
+                               @Qualifier("upstreamExecutor") Executor upstreamExecutor) {
         this.restTemplate = restTemplate;
+        this.baseUrl = properties.getBaseUrl();
+        this.employeeStreamReader = new EmployeeStreamReader(objectMapper);
+        this.streamingReads = properties.isStreamingReads();
+        this.upstreamExecutor = upstreamExecutor;
+        UpstreamResilienceProperties.RateLimit rateLimit = resilience.getRateLimit();
+        this.maxFanOut = rateLimit.maxConcurrentCallers(Math.max(1, properties.getMaxFanOut()));
+        this.maxWriteConcurrency = Math.max(1, properties.getMaxWriteConcurrency());
+        this.writePacer = new AdaptivePacer(rateLimit.pacedRate(properties.getWritesPerSecond()));
     }
 
     @Override
     public List<Employee> getAllEmployees() {
-            String url = BASE_URL + "/employees";
-            EmployeeResponse response = restTemplate.getForObject(url, EmployeeResponse.class);
-            return response != null ? response.getData() : new ArrayList<>();
+            String url = baseUrl + "/employees";
+            EmployeeResponse response = employeesFlight.execute(url,
+                    () -> restTemplate.getForObject(url, EmployeeResponse.class));
+            // Coalesced callers share the response, so each gets its own list to sort or filter.
+            return response != null && response.getData() != null ? new ArrayList<>(response.getData()) : new ArrayList<>();
+    }
+
+    // Streams /employees through the consumer one record at a time. Not coalesced: every caller reduces its own stream.
+    public void forEachEmployee(Consumer<Employee> consumer) {
+        String url = baseUrl + "/employees";
+        restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+                response -> employeeStreamReader.read(response.getBody(), consumer));
+    }
+
+    @Override
+    public EmployeePage getEmployeesPage(EmployeeField sort, boolean descending, int offset, int limit) {
+        List<Employee> employees = getAllEmployees();
+        if (sort != null) {
+            employees.sort(descending ? sort.ascending().reversed() : sort.ascending());
+        } else if (descending) {
+            Collections.reverse(employees);
+        }
+        int from = Math.min(employees.size(), Math.max(0, offset));
+        int to = (int) Math.min(employees.size(), (long) from + limit);
+        return new EmployeePage(new ArrayList<>(employees.subList(from, to)), employees.size());
     }
 
     @Override
     public List<Employee> getEmployeesByNameSearch(String name) {
+        return searchEmployeesByName(name, NameMatch.EXACT, 0);
+    }
 
+    @Override
+    public List<Employee> searchEmployeesByName(String query, NameMatch match, int limit) {
+        String normalizedQuery = NameMatch.normalize(query);
+        if (normalizedQuery == null || normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (streamingReads) {
+            List<Employee> matches = new ArrayList<>();
+            int max = limit > 0 ? limit : Integer.MAX_VALUE;
+            forEachEmployee(employee -> {
+                String employeeName = NameMatch.normalize(employee.getEmployeeName());
+                if (matches.size() < max && employeeName != null && match.matches(employeeName, normalizedQuery)) {
+                    matches.add(employee);
+                }
+            });
+            return matches;
+        }
         return getAllEmployees().stream()
                 .filter(employee -> {
-                    String employeeName = employee.getEmployeeName();
-                    // Check if employeeName is not null and equals the specified name
-                    return employeeName != null && employeeName.equals(name);
+                    String employeeName = NameMatch.normalize(employee.getEmployeeName());
+                    // Check if employeeName is not null and matches the query in the requested mode
+                    return employeeName != null && match.matches(employeeName, normalizedQuery);
                 })
+                .limit(limit > 0 ? limit : Long.MAX_VALUE)
                 .collect(Collectors.toList());
     }
 
     @Override
     public EmployeeByIdResponse getEmployeeById(String id) {
-        String url = BASE_URL + "/employee/" + id;
-        return restTemplate.getForObject(url, EmployeeByIdResponse.class);
+        String url = baseUrl + "/employee/" + id;
+        return employeeByIdFlight.execute(url, () -> restTemplate.getForObject(url, EmployeeByIdResponse.class));
+    }
+
+    @Override
+    public EmployeeBatchResponse getEmployeesByIds(List<String> ids) {
+        EmployeeBatchResponse batch = new EmployeeBatchResponse();
+        batch.getData().addAll(getEmployeesKeyedByIds(ids, batch.getErrors()).values());
+        return batch;
+    }
+
+    // Found employees keyed by the id they were requested under, which upstream may echo normalised differently
+    // ("7" for "007"); ids that could not be fetched are put into errors instead. Keys follow request order. Once
+    // the thread is interrupted (the request hit its deadline) nothing more is sent, calls not yet finished are
+    // cancelled and their ids reported as not fetched.
+    public Map<String, Employee> getEmployeesKeyedByIds(List<String> ids, Map<String, String> errors) {
+        Semaphore permits = new Semaphore(maxFanOut);
+        Set<String> requested = new LinkedHashSet<>(ids);
+        Map<String, CompletableFuture<EmployeeByIdResponse>> calls = new LinkedHashMap<>();
+        for (String id : requested) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                calls.put(id, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return getEmployeeById(id);
+                    } finally {
+                        permits.release();
+                    }
+                }, upstreamExecutor));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        Map<String, Employee> found = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<EmployeeByIdResponse>> call : calls.entrySet()) {
+            try {
+                EmployeeByIdResponse response = call.getValue().get();
+                if (response != null && response.getData() != null) {
+                    found.put(call.getKey(), response.getData());
+                } else {
+                    errors.put(call.getKey(), "Employee not found");
+                }
+            } catch (ExecutionException e) {
+                errors.put(call.getKey(), describeFailure(e.getCause() != null ? e.getCause() : e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                calls.values().forEach(pending -> pending.cancel(true));
+                break;
+            }
+        }
+        for (String id : requested) {
+            if (!found.containsKey(id) && !errors.containsKey(id)) {
+                errors.put(id, "Not fetched: request interrupted");
+            }
+        }
+        return found;
     }
 
     @Override
     public int getHighestSalaryOfEmployees() {
-        List<Employee> employeeList = getTopHighestEarningEmployees(1);
-        if(employeeList.isEmpty())
-            return 0;
-        return employeeList.get(0).getEmployeeSalary();
+        if (streamingReads) {
+            int[] max = new int[1];
+            forEachEmployee(employee -> max[0] = Math.max(max[0], employee.getEmployeeSalary()));
+            return max[0];
+        }
+        return TopSalarySelector.maxSalary(getAllEmployees());
     }
 
     public List<Employee> getTopHighestEarningEmployees(int size) {
-        List<Employee> employeeList = getAllEmployees();
-        employeeList.sort(Comparator.comparingInt(Employee::getEmployeeSalary).reversed());
-        return employeeList.subList(0, Math.min(size, employeeList.size()));
+        if (streamingReads) {
+            TopSalarySelector selector = new TopSalarySelector(size);
+            forEachEmployee(selector::offer);
+            return selector.result();
+        }
+        return TopSalarySelector.select(getAllEmployees(), size);
+    }
+
+    @Override
+    public SalaryAnalytics getSalaryAnalytics() {
+        SalaryAggregates.Accumulator accumulator = new SalaryAggregates.Accumulator();
+        if (streamingReads) {
+            forEachEmployee(accumulator);
+        } else {
+            getAllEmployees().forEach(accumulator);
+        }
+        return accumulator.toAnalytics();
     }
 
    @Override
     public EmployeeByIdResponse createEmployee(Employee employee) {
-        String url = BASE_URL + "/create";
+        String url = baseUrl + "/create";
         return restTemplate.postForObject(url, employee, EmployeeByIdResponse.class);
     }
 
     @Override
     public void deleteEmployee(String id) {
-        String url = BASE_URL + "/delete/" + id;
+        String url = baseUrl + "/delete/" + id;
         restTemplate.delete(url);
     }
+
+    @Override
+    public EmployeeBatchWriteResponse createEmployees(List<Employee> employees) {
+        return pipelineWrites(employees, employee -> {
+            EmployeeByIdResponse created = createEmployee(employee);
+            Employee data = created != null ? created.getData() : null;
+            return new EmployeeWriteResult(0, data != null ? data.getId() : employee.getId(), true, data, null);
+        }, Employee::getId);
+    }
+
+    @Override
+    public EmployeeBatchWriteResponse deleteEmployees(List<String> ids) {
+        return pipelineWrites(ids, id -> {
+            deleteEmployee(id);
+            return new EmployeeWriteResult(0, id, true, null, null);
+        }, Function.identity());
+    }
+
+    // Dispatches writes at the paced rate with at most maxWriteConcurrency in flight and reports every item. Once
+    // the thread is interrupted (the request hit its deadline) nothing more is sent and the rest is not attempted.
+    private <T> EmployeeBatchWriteResponse pipelineWrites(List<T> items, Function<T, EmployeeWriteResult> write,
+                                                          Function<T, String> idOf) {
+        Semaphore permits = new Semaphore(maxWriteConcurrency);
+        List<CompletableFuture<EmployeeWriteResult>> writes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            T item = items.get(i);
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            // The pacer keeps the interrupt flag set rather than throwing.
+            writePacer.acquire();
+            if (Thread.currentThread().isInterrupted()) {
+                permits.release();
+                break;
+            }
+            try {
+                writes.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        EmployeeWriteResult result = write.apply(item);
+                        writePacer.onSuccess();
+                        result.setIndex(index);
+                        return result;
+                    } catch (RuntimeException e) {
+                        // Back off for our own limiter turning a write away as for upstream throttling it.
+                        if (e instanceof UpstreamUnavailableException || (e instanceof HttpStatusCodeException
+                                && ((HttpStatusCodeException) e).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS)) {
+                            writePacer.onThrottled();
+                        }
+                        return new EmployeeWriteResult(index, item != null ? idOf.apply(item) : null, false, null,
+                                describeFailure(e));
+                    } finally {
+                        permits.release();
+                    }
+                }, upstreamExecutor));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        EmployeeBatchWriteResponse batch = new EmployeeBatchWriteResponse();
+        for (CompletableFuture<EmployeeWriteResult> pending : writes) {
+            batch.add(pending.join());
+        }
+        for (int i = writes.size(); i < items.size(); i++) {
+            T item = items.get(i);
+            batch.add(new EmployeeWriteResult(i, item != null ? idOf.apply(item) : null, false, null,
+                    "Not attempted: request interrupted"));
+        }
+        return batch;
+    }
+
+    static String describeFailure(Throwable failure) {
+        if (failure instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) failure).getStatusCode().toString();
+        }
+        return failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+    }
+
+    public long getIssuedUpstreamReads() {
+        return employeesFlight.getIssuedCount() + employeeByIdFlight.getIssuedCount();
+    }
+
+    public long getCoalescedUpstreamReads() {
+        return employeesFlight.getCoalescedCount() + employeeByIdFlight.getCoalescedCount();
+    }
 }
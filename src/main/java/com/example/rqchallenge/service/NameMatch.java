@@ -0,0 +1,36 @@
+package com.example.rqchallenge.service;
+
+import java.util.Locale;
+
+public enum NameMatch {
+
+    EXACT {
+        @Override
+        public boolean matches(String normalizedName, String normalizedQuery) {
+            return normalizedName.equals(normalizedQuery);
+        }
+    },
+    PREFIX {
+        @Override
+        public boolean matches(String normalizedName, String normalizedQuery) {
+            return normalizedName.startsWith(normalizedQuery);
+        }
+    },
+    CONTAINS {
+        @Override
+        public boolean matches(String normalizedName, String normalizedQuery) {
+            return normalizedName.contains(normalizedQuery);
+        }
+    };
+
+    public abstract boolean matches(String normalizedName, String normalizedQuery);
+
+    public static NameMatch from(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // Names are compared case-insensitively and ignoring surrounding whitespace.
+    public static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+
+    Flux<Employee> getAllEmployees();
+
+    Flux<Employee> getEmployeesByNameSearch(String name);
+
+    Flux<Employee> searchEmployeesByName(String query, NameMatch match, int limit);
+
+    Mono<EmployeeByIdResponse> getEmployeeById(String id);
+
+    Mono<Integer> getHighestSalaryOfEmployees();
+
+    Flux<Employee> getTopHighestEarningEmployees(int size);
+
+    Mono<EmployeeByIdResponse> createEmployee(Employee employee);
+
+    Mono<Void> deleteEmployee(String id);
+}
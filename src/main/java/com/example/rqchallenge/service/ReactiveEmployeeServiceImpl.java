@@ -0,0 +1,96 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeeResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeServiceImpl} on {@link WebClient}; no thread waits on upstream I/O.
+ * Calls share the blocking stack's client-side rate limit and circuit breaker, but are not retried, balanced over
+ * replicas or counted in the employee.upstream.* metrics.
+ */
+@Service
+@ConditionalOnProperty(prefix = "employee.reactive", name = "enabled")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private final WebClient webClient;
+
+    public ReactiveEmployeeServiceImpl(@Qualifier("upstreamWebClient") WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return webClient.get()
+                .uri("/employees")
+                .retrieve()
+                .bodyToMono(EmployeeResponse.class)
+                .flatMapIterable(response -> response.getData() != null ? response.getData() : Collections.<Employee>emptyList());
+    }
+
+    @Override
+    public Flux<Employee> getEmployeesByNameSearch(String name) {
+        return searchEmployeesByName(name, NameMatch.EXACT, 0);
+    }
+
+    @Override
+    public Flux<Employee> searchEmployeesByName(String query, NameMatch match, int limit) {
+        String normalizedQuery = NameMatch.normalize(query);
+        if (normalizedQuery == null || normalizedQuery.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<Employee> matches = getAllEmployees().filter(employee -> {
+            String employeeName = NameMatch.normalize(employee.getEmployeeName());
+            return employeeName != null && match.matches(employeeName, normalizedQuery);
+        });
+        return limit > 0 ? matches.take(limit) : matches;
+    }
+
+    @Override
+    public Mono<EmployeeByIdResponse> getEmployeeById(String id) {
+        return webClient.get()
+                .uri("/employee/{id}", id)
+                .retrieve()
+                .bodyToMono(EmployeeByIdResponse.class);
+    }
+
+    @Override
+    public Mono<Integer> getHighestSalaryOfEmployees() {
+        return getAllEmployees()
+                .map(Employee::getEmployeeSalary)
+                .reduce(Math::max)
+                .defaultIfEmpty(0);
+    }
+
+    @Override
+    public Flux<Employee> getTopHighestEarningEmployees(int size) {
+        return getAllEmployees()
+                .collect(() -> new TopSalarySelector(size), TopSalarySelector::offer)
+                .flatMapIterable(TopSalarySelector::result);
+    }
+
+    @Override
+    public Mono<EmployeeByIdResponse> createEmployee(Employee employee) {
+        return webClient.post()
+                .uri("/create")
+                .bodyValue(employee)
+                .retrieve()
+                .bodyToMono(EmployeeByIdResponse.class);
+    }
+
+    @Override
+    public Mono<Void> deleteEmployee(String id) {
+        return webClient.delete()
+                .uri("/delete/{id}", id)
+                .retrieve()
+                .bodyToMono(Void.class);
+    }
+}
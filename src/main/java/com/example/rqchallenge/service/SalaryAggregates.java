@@ -0,0 +1,203 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Count, sum, salary histogram and per-age-band totals over a set of employees. Everything here is a plain sum,
+ * so adding or removing one employee is O(1) and the aggregates never have to be rebuilt from the full list.
+ * Min, max and percentiles are order statistics and are not kept here: {@link #toAnalytics(IntUnaryOperator)}
+ * reads them from whatever salary order the caller already has, which keeps them exact.
+ * <p>
+ * Instances are immutable; {@link #with(int, int)} and {@link #without(int, int)} return updated copies.
+ */
+public final class SalaryAggregates {
+
+    public static final int UNKNOWN_AGE = Integer.MIN_VALUE;
+
+    // Lower bounds of the histogram buckets; the first also takes negative salaries and the last is open-ended.
+    private static final int[] BUCKET_BOUNDS = {0, 25_000, 50_000, 75_000, 100_000, 150_000, 200_000, 300_000,
+            500_000, 750_000, 1_000_000};
+    // Lower bounds of the age bands; ages that could not be parsed go in one more band after these.
+    private static final int[] BAND_BOUNDS = {Integer.MIN_VALUE, 25, 35, 45, 55, 65};
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private static final SalaryAggregates EMPTY =
+            new SalaryAggregates(0, 0, new long[BUCKET_BOUNDS.length], new long[BAND_BOUNDS.length + 1],
+                    new long[BAND_BOUNDS.length + 1]);
+
+    private final long count;
+    private final long sum;
+    private final long[] buckets;
+    private final long[] bandCounts;
+    private final long[] bandSums;
+
+    private SalaryAggregates(long count, long sum, long[] buckets, long[] bandCounts, long[] bandSums) {
+        this.count = count;
+        this.sum = sum;
+        this.buckets = buckets;
+        this.bandCounts = bandCounts;
+        this.bandSums = bandSums;
+    }
+
+    public static SalaryAggregates empty() {
+        return EMPTY;
+    }
+
+    public static SalaryAggregates of(int[] salaries, int[] ages, int size) {
+        long[] buckets = new long[BUCKET_BOUNDS.length];
+        long[] bandCounts = new long[BAND_BOUNDS.length + 1];
+        long[] bandSums = new long[BAND_BOUNDS.length + 1];
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += salaries[i];
+            buckets[bucketOf(salaries[i])]++;
+            int band = bandOf(ages[i]);
+            bandCounts[band]++;
+            bandSums[band] += salaries[i];
+        }
+        return new SalaryAggregates(size, sum, buckets, bandCounts, bandSums);
+    }
+
+    public SalaryAggregates with(int salary, int age) {
+        return plus(salary, age, 1);
+    }
+
+    public SalaryAggregates without(int salary, int age) {
+        return plus(salary, age, -1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Builds the response, reading order statistics through {@code salaryAtAscendingRank}, which must return the
+     * salary at a 0-based rank in ascending order over the same employees. Only the ranks for min, max and each
+     * percentile are read.
+     */
+    public SalaryAnalytics toAnalytics(IntUnaryOperator salaryAtAscendingRank) {
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        Integer min = null;
+        Integer max = null;
+        Double mean = null;
+        if (count > 0) {
+            min = salaryAtAscendingRank.applyAsInt(0);
+            max = salaryAtAscendingRank.applyAsInt((int) count - 1);
+            mean = (double) sum / count;
+            for (double percentile : PERCENTILES) {
+                long rank = (long) Math.ceil(percentile / 100 * count) - 1;
+                percentiles.put("p" + (int) percentile,
+                        salaryAtAscendingRank.applyAsInt((int) Math.max(0, Math.min(count - 1, rank))));
+            }
+        }
+
+        List<SalaryAnalytics.Bucket> histogram = new ArrayList<>(BUCKET_BOUNDS.length);
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            histogram.add(new SalaryAnalytics.Bucket(i == 0 ? null : BUCKET_BOUNDS[i],
+                    i + 1 < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[i + 1] : null, buckets[i]));
+        }
+        List<SalaryAnalytics.AgeBand> bands = new ArrayList<>(bandCounts.length);
+        for (int i = 0; i < bandCounts.length; i++) {
+            bands.add(new SalaryAnalytics.AgeBand(bandName(i), bandCounts[i], bandSums[i],
+                    bandCounts[i] > 0 ? (double) bandSums[i] / bandCounts[i] : null));
+        }
+        return new SalaryAnalytics(count, min, max, mean, sum, percentiles, histogram, bands);
+    }
+
+    // Upstream sends ages as strings; anything that is not a plain integer counts as unknown.
+    public static int parseAge(String age) {
+        if (age == null) {
+            return UNKNOWN_AGE;
+        }
+        try {
+            return Integer.parseInt(age.trim());
+        } catch (NumberFormatException e) {
+            return UNKNOWN_AGE;
+        }
+    }
+
+    private SalaryAggregates plus(int salary, int age, int sign) {
+        long[] newBuckets = buckets.clone();
+        long[] newBandCounts = bandCounts.clone();
+        long[] newBandSums = bandSums.clone();
+        newBuckets[bucketOf(salary)] += sign;
+        int band = bandOf(age);
+        newBandCounts[band] += sign;
+        newBandSums[band] += (long) sign * salary;
+        return new SalaryAggregates(count + sign, sum + (long) sign * salary, newBuckets, newBandCounts, newBandSums);
+    }
+
+    private static int bucketOf(int salary) {
+        int bucket = 0;
+        while (bucket + 1 < BUCKET_BOUNDS.length && salary >= BUCKET_BOUNDS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static int bandOf(int age) {
+        if (age == UNKNOWN_AGE) {
+            return BAND_BOUNDS.length;
+        }
+        int band = 0;
+        while (band + 1 < BAND_BOUNDS.length && age >= BAND_BOUNDS[band + 1]) {
+            band++;
+        }
+        return band;
+    }
+
+    private static String bandName(int band) {
+        if (band == BAND_BOUNDS.length) {
+            return "unknown";
+        }
+        if (band == 0) {
+            return "<" + BAND_BOUNDS[1];
+        }
+        if (band == BAND_BOUNDS.length - 1) {
+            return BAND_BOUNDS[band] + "+";
+        }
+        return BAND_BOUNDS[band] + "-" + (BAND_BOUNDS[band + 1] - 1);
+    }
+
+    /**
+     * One-shot analytics over employees offered one at a time, for callers without a maintained salary order.
+     * Keeps two ints per employee and sorts the salaries once at the end.
+     */
+    public static final class Accumulator implements Consumer<Employee> {
+
+        private int[] salaries = new int[256];
+        private int[] ages = new int[256];
+        private int size;
+
+        @Override
+        public void accept(Employee employee) {
+            if (size == salaries.length) {
+                salaries = Arrays.copyOf(salaries, size * 2);
+                ages = Arrays.copyOf(ages, size * 2);
+            }
+            salaries[size] = employee.getEmployeeSalary();
+            ages[size] = parseAge(employee.getEmployeeAge());
+            size++;
+        }
+
+        public SalaryAnalytics toAnalytics() {
+            SalaryAggregates aggregates = of(salaries, ages, size);
+            int[] sorted = Arrays.copyOf(salaries, size);
+            Arrays.sort(sorted);
+            return aggregates.toAnalytics(rank -> sorted[rank]);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the k highest paid employees with a bounded min-heap: O(n log k) time and O(k) extra space,
+ * instead of sorting the whole list. Employees can be offered one at a time as they arrive.
+ */
+public final class TopSalarySelector {
+
+    public static final Comparator<Employee> BY_SALARY_DESC =
+            Comparator.comparingInt(Employee::getEmployeeSalary).reversed();
+
+    private final int k;
+    private final PriorityQueue<Employee> heap;
+
+    public TopSalarySelector(int k) {
+        this.k = Math.max(k, 0);
+        this.heap = new PriorityQueue<>(Math.max(this.k, 1), Comparator.comparingInt(Employee::getEmployeeSalary));
+    }
+
+    public void offer(Employee employee) {
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.offer(employee);
+        } else if (employee.getEmployeeSalary() > heap.peek().getEmployeeSalary()) {
+            heap.poll();
+            heap.offer(employee);
+        }
+    }
+
+    public List<Employee> result() {
+        List<Employee> top = new ArrayList<>(heap);
+        top.sort(BY_SALARY_DESC);
+        return top;
+    }
+
+    public static List<Employee> select(Iterable<Employee> employees, int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        TopSalarySelector selector = new TopSalarySelector(k);
+        for (Employee employee : employees) {
+            selector.offer(employee);
+        }
+        return selector.result();
+    }
+
+    public static int maxSalary(Iterable<Employee> employees) {
+        int max = 0;
+        boolean seen = false;
+        for (Employee employee : employees) {
+            if (!seen || employee.getEmployeeSalary() > max) {
+                max = employee.getEmployeeSalary();
+                seen = true;
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.rqchallenge.simulator;
+
+import com.example.rqchallenge.entity.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process stand-in for the employee API, enabled with the {@code simulator} profile. It serves the same
+ * routes and envelopes as dummy.restapiexample.com over a generated dataset, with log-normal latency and
+ * injected 429s, errors and hangs. Delays are scheduled rather than slept, so the simulator holds no request
+ * threads while a response is pending.
+ */
+@RestController
+@Profile("simulator")
+@RequestMapping("/simulator/api/v1")
+public class UpstreamSimulatorController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamSimulatorController.class);
+
+    // z-score of the 99th percentile of a standard normal distribution.
+    private static final double Z_99 = 2.326;
+
+    private static final String[] FIRST_NAMES = {"Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod",
+            "Rhona", "Colleen", "Sonya", "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria"};
+    private static final String[] LAST_NAMES = {"Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler",
+            "Davidson", "Hurst", "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd"};
+
+    private final UpstreamSimulatorProperties properties;
+    private final ConcurrentSkipListMap<Long, Employee> employees = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final double latencySigma;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "upstream-simulator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UpstreamSimulatorController(UpstreamSimulatorProperties properties) {
+        this.properties = properties;
+        long median = properties.getLatencyMedian().toNanos();
+        long p99 = properties.getLatencyP99().toNanos();
+        this.latencySigma = median > 0 && p99 > median ? Math.log((double) p99 / median) / Z_99 : 0;
+
+        Random random = new Random(properties.getSeed());
+        for (int i = 0; i < properties.getEmployees(); i++) {
+            long id = nextId.incrementAndGet();
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            employees.put(id, new Employee(String.valueOf(id), name, 20_000 + random.nextInt(980_000),
+                    String.valueOf(20 + random.nextInt(45)), ""));
+        }
+        logger.info("Upstream simulator serving {} employees", employees.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @GetMapping("/employees")
+    public DeferredResult<ResponseEntity<Object>> getAllEmployees() {
+        return respond(() -> ok(new ArrayList<>(employees.values()), "Successfully! All records has been fetched."));
+    }
+
+    @GetMapping("/employee/{id}")
+    public DeferredResult<ResponseEntity<Object>> getEmployeeById(@PathVariable String id) {
+        return respond(() -> {
+            Employee employee = employees.get(parseId(id));
+            if (employee == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .<Object>body(envelope("error", null, "Record not found"));
+            }
+            return ok(employee, "Successfully! Record has been fetched.");
+        });
+    }
+
+    @PostMapping("/create")
+    public DeferredResult<ResponseEntity<Object>> createEmployee(@RequestBody Employee employee) {
+        return respond(() -> {
+            long id = nextId.incrementAndGet();
+            Employee created = new Employee(String.valueOf(id), employee.getEmployeeName(),
+                    employee.getEmployeeSalary(), employee.getEmployeeAge(), employee.getProfileImage());
+            employees.put(id, created);
+            return ok(created, "Successfully! Record has been added.");
+        });
+    }
+
+    @DeleteMapping("/delete/{id}")
+    public DeferredResult<ResponseEntity<Object>> deleteEmployee(@PathVariable String id) {
+        return respond(() -> {
+            employees.remove(parseId(id));
+            return ok(id, "Successfully! Record has been deleted");
+        });
+    }
+
+    // Decides the call's fate up front, so a faulted call has no side effects.
+    private DeferredResult<ResponseEntity<Object>> respond(Supplier<ResponseEntity<Object>> action) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < properties.getHangRate()) {
+            return new DeferredResult<>(properties.getHangDuration().toMillis(),
+                    ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+        }
+        roll -= properties.getHangRate();
+
+        Supplier<ResponseEntity<Object>> outcome;
+        if (roll < properties.getThrottleRate()) {
+            outcome = () -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfter().getSeconds()))
+                    .build();
+        } else if (roll - properties.getThrottleRate() < properties.getErrorRate()) {
+            outcome = () -> ResponseEntity.status(properties.getErrorStatus())
+                    .<Object>body(envelope("error", null, "Injected failure"));
+        } else {
+            outcome = action;
+        }
+
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>();
+        long delayNanos = latencyNanos(random);
+        if (delayNanos <= 0) {
+            result.setResult(outcome.get());
+        } else {
+            scheduler.schedule(() -> result.setResult(outcome.get()), delayNanos, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private long latencyNanos(ThreadLocalRandom random) {
+        long median = properties.getLatencyMedian().toNanos();
+        if (median <= 0) {
+            return 0;
+        }
+        return (long) (median * Math.exp(latencySigma * random.nextGaussian()));
+    }
+
+    private static ResponseEntity<Object> ok(Object data, String message) {
+        return ResponseEntity.<Object>ok(envelope("success", data, message));
+    }
+
+    private static Map<String, Object> envelope(String status, Object data, String message) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("status", status);
+        envelope.put("data", data);
+        envelope.put("message", message);
+        return envelope;
+    }
+
+    private static Long parseId(String id) {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
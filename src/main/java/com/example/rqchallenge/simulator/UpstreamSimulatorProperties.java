@@ -0,0 +1,38 @@
+package com.example.rqchallenge.simulator;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "upstream.simulator")
+public class UpstreamSimulatorProperties {
+
+    // Employees generated at startup; the same seed always yields the same dataset.
+    private int employees = 1000;
+
+    private long seed = 42;
+
+    // Log-normal response latency described by its median and 99th percentile; a zero median disables it.
+    private Duration latencyMedian = Duration.ofMillis(50);
+
+    private Duration latencyP99 = Duration.ofMillis(250);
+
+    // Fraction of calls answered with 429 and a Retry-After of retryAfter.
+    private double throttleRate = 0.0;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Fraction of calls failed with errorStatus.
+    private double errorRate = 0.0;
+
+    private int errorStatus = 500;
+
+    // Fraction of calls that never answer and are cut off with 504 after hangDuration, to exercise client timeouts.
+    private double hangRate = 0.0;
+
+    private Duration hangDuration = Duration.ofSeconds(30);
+}
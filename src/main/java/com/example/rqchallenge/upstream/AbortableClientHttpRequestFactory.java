@@ -0,0 +1,54 @@
+package com.example.rqchallenge.upstream;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Request factory that lets the caller abort a call in progress. {@link UpstreamLoadBalancer} uses it to cancel
+ * the losing request of a hedged pair: aborting shuts its connection down even in the middle of a read, which
+ * interrupting the calling thread would not.
+ */
+public class AbortableClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private static final ThreadLocal<Consumer<Runnable>> ABORT_HANDLERS = new ThreadLocal<>();
+
+    public AbortableClientHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected void postProcessHttpRequest(HttpUriRequest request) {
+        registerAbort(request::abort);
+    }
+
+    // Runs the call, handing an abort action for any request it creates on this thread to the handler.
+    static <T> T withAbortHandler(Consumer<Runnable> handler, IOCall<T> call) throws IOException {
+        Consumer<Runnable> previous = ABORT_HANDLERS.get();
+        ABORT_HANDLERS.set(handler);
+        try {
+            return call.call();
+        } finally {
+            if (previous != null) {
+                ABORT_HANDLERS.set(previous);
+            } else {
+                ABORT_HANDLERS.remove();
+            }
+        }
+    }
+
+    static void registerAbort(Runnable abort) {
+        Consumer<Runnable> handler = ABORT_HANDLERS.get();
+        if (handler != null) {
+            handler.accept(abort);
+        }
+    }
+
+    interface IOCall<T> {
+
+        T call() throws IOException;
+    }
+}
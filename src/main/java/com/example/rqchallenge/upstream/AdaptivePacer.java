@@ -0,0 +1,54 @@
+package com.example.rqchallenge.upstream;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out upstream dispatches to a target rate. The spacing doubles whenever upstream throttles us and
+ * shrinks back towards the target by a tenth of the base interval on each success.
+ */
+public class AdaptivePacer {
+
+    private static final long MAX_BACKOFF_FACTOR = 32;
+
+    private final long baseIntervalNanos;
+    private long intervalNanos;
+    private long nextSlotNanos;
+
+    public AdaptivePacer(double permitsPerSecond) {
+        this.baseIntervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.intervalNanos = baseIntervalNanos;
+        this.nextSlotNanos = System.nanoTime();
+    }
+
+    public void acquire() {
+        if (baseIntervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            nextSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public synchronized void onThrottled() {
+        intervalNanos = Math.min(Math.max(intervalNanos, 1) * 2, baseIntervalNanos * MAX_BACKOFF_FACTOR);
+    }
+
+    public synchronized void onSuccess() {
+        intervalNanos = Math.max(baseIntervalNanos, intervalNanos - baseIntervalNanos / 10);
+    }
+
+    public synchronized long getIntervalNanos() {
+        return intervalNanos;
+    }
+}
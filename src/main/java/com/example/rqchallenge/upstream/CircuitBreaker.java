@@ -0,0 +1,73 @@
+package com.example.rqchallenge.upstream;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row calls are rejected for
+ * {@code openDuration}; then a limited number of trial calls decide whether it closes again or re-opens.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenTrials;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private int trialsInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openDuration, TimeUnit unit, int halfOpenTrials) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = unit.toNanos(openDuration);
+        this.halfOpenTrials = Math.max(1, halfOpenTrials);
+    }
+
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialsInFlight = 1;
+                return true;
+            default:
+                if (trialsInFlight < halfOpenTrials) {
+                    trialsInFlight++;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    // Gives back a permit that was granted but never used for an upstream call.
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialsInFlight > 0) {
+            trialsInFlight--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialsInFlight = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            trialsInFlight = 0;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.rqchallenge.upstream;
+
+import com.example.rqchallenge.entity.Employee;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads the upstream {@code {"status": ..., "data": [...], "message": ...}} envelope off the token stream and
+ * hands each employee to the consumer as soon as it is parsed, so the full list never has to be held in memory.
+ */
+public class EmployeeStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    public EmployeeStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public int read(InputStream body, Consumer<Employee> consumer) throws IOException {
+        int count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an employee response object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    count += readEmployees(parser, consumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return count;
+    }
+
+    private int readEmployees(JsonParser parser, Consumer<Employee> consumer) throws IOException {
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of employee array");
+            }
+            if (token == JsonToken.START_OBJECT) {
+                consumer.accept(objectMapper.readValue(parser, Employee.class));
+                count++;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.rqchallenge.upstream;
+
+import java.util.Arrays;
+
+/**
+ * The last {@code capacity} latencies of one route, for a percentile that follows recent behaviour. The percentile
+ * is recomputed every few samples rather than on every read, since it is asked for on every hedgeable call.
+ */
+final class LatencyWindow {
+
+    // Fewer samples than this give no percentile at all.
+    static final int MIN_SAMPLES = 20;
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double quantile;
+    private int next;
+    private int count;
+    private int sinceComputed;
+    private long percentile = -1;
+
+    LatencyWindow(int capacity, double quantile) {
+        this.samples = new long[capacity];
+        this.quantile = quantile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        sinceComputed++;
+    }
+
+    // Nearest-rank percentile in nanos, or -1 until there are MIN_SAMPLES samples.
+    synchronized long percentileNanos() {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        if (percentile < 0 || sinceComputed >= RECOMPUTE_EVERY) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(quantile * count);
+            percentile = sorted[Math.min(count, Math.max(1, rank)) - 1];
+            sinceComputed = 0;
+        }
+        return percentile;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.rqchallenge.upstream;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds {@link org.springframework.web.reactive.function.client.WebClient} calls to the same token bucket and
+ * circuit breaker as {@link ResilienceInterceptor}, so the reactive stack draws on the one upstream quota. Waiting for
+ * a token is a timer delay rather than a parked thread; past the acquire timeout the call fails with
+ * {@link UpstreamUnavailableException}, as a blocking one does.
+ * <p>
+ * Retries, replica balancing and the upstream call metrics are left to the blocking stack.
+ */
+public class ReactiveResilienceFilter implements ExchangeFilterFunction {
+
+    private final TokenBucket rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final long acquireTimeoutNanos;
+
+    public ReactiveResilienceFilter(TokenBucket rateLimiter, CircuitBreaker circuitBreaker, Duration acquireTimeout) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.allowRequest()) {
+                return Mono.error(new UpstreamUnavailableException("Circuit breaker open for employee API"));
+            }
+            return acquire(System.nanoTime() + acquireTimeoutNanos).then(Mono.defer(() -> exchange(request, next)));
+        });
+    }
+
+    private Mono<Void> acquire(long deadlineNanos) {
+        return Mono.defer(() -> {
+            long waitNanos = rateLimiter.tryAcquireNow();
+            if (waitNanos == 0) {
+                return Mono.<Void>empty();
+            }
+            if (waitNanos > deadlineNanos - System.nanoTime()) {
+                circuitBreaker.release();
+                return Mono.<Void>error(
+                        new UpstreamUnavailableException("Client-side rate limit for employee API exhausted"));
+            }
+            return Mono.delay(Duration.ofNanos(waitNanos)).then(acquire(deadlineNanos));
+        });
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next) {
+        // Exactly one of the outcomes settles the breaker, so a half-open trial slot is always returned.
+        AtomicBoolean settled = new AtomicBoolean();
+        return next.exchange(request)
+                .doOnNext(response -> {
+                    if (settled.compareAndSet(false, true)) {
+                        int status = response.rawStatusCode();
+                        if (status == 429 || status >= 500) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                    }
+                })
+                .doOnError(e -> {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.onFailure();
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.release();
+                    }
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.rqchallenge.upstream;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking client for the reactive stack, sized from the same upstream.client.* settings as the blocking pool
+ * and held to the blocking stack's rate limiter and circuit breaker through {@link ReactiveResilienceFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.reactive", name = "enabled")
+public class ReactiveUpstreamClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamClientProperties properties) {
+        return ConnectionProvider.builder("employee-api")
+                .maxConnections(properties.getMaxConnectionsTotal())
+                .pendingAcquireTimeout(properties.getPoolAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .evictInBackground(properties.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public WebClient upstreamWebClient(WebClient.Builder webClientBuilder, ConnectionProvider upstreamConnectionProvider,
+                                       UpstreamClientProperties properties, UpstreamApiProperties apiProperties,
+                                       ResilienceInterceptor resilienceInterceptor,
+                                       UpstreamResilienceProperties resilienceProperties) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(properties.isCompression());
+        return webClientBuilder
+                .baseUrl(apiProperties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new ReactiveResilienceFilter(resilienceInterceptor.getRateLimiter(),
+                        resilienceInterceptor.getCircuitBreaker(),
+                        resilienceProperties.getRateLimit().getAcquireTimeout()))
+                .codecs(configurer -> configurer.defaultCodecs()
+                        .maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
+                .build();
+    }
+}
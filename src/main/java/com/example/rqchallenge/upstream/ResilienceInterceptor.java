@@ -0,0 +1,175 @@
+package com.example.rqchallenge.upstream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps every outbound call to the employee API with a client-side token bucket, a circuit breaker and
+ * Retry-After aware retries with full-jitter exponential backoff. Throttled (429) calls are retried for any
+ * method since upstream did not process them; 502/503/504 and I/O errors only for idempotent methods.
+ * <p>
+ * Every attempt goes through the {@link UpstreamLoadBalancer}, so a retry can land on another replica. The balancer
+ * is called from here rather than registered as an interceptor of its own: a RestTemplate walks its interceptors
+ * once per request, so a retry re-entering {@link ClientHttpRequestExecution} would skip anything after this one.
+ * For the same reason this must be the last interceptor.
+ */
+@Component
+public class ResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceInterceptor.class);
+
+    private static final Set<HttpMethod> IDEMPOTENT = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.PUT,
+            HttpMethod.DELETE, HttpMethod.OPTIONS);
+
+    private final TokenBucket rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final long acquireTimeoutNanos;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long maxRetryAfterMillis;
+    // Null to send every attempt straight on.
+    private final UpstreamLoadBalancer loadBalancer;
+
+    public ResilienceInterceptor(UpstreamResilienceProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public ResilienceInterceptor(UpstreamResilienceProperties properties, UpstreamLoadBalancer loadBalancer) {
+        UpstreamResilienceProperties.RateLimit rateLimit = properties.getRateLimit();
+        UpstreamResilienceProperties.Retry retry = properties.getRetry();
+        UpstreamResilienceProperties.Breaker breaker = properties.getCircuitBreaker();
+        this.rateLimiter = new TokenBucket(rateLimit.getPermitsPerSecond(), rateLimit.getBurst());
+        this.circuitBreaker = new CircuitBreaker(breaker.getFailureThreshold(), breaker.getOpenDuration().toMillis(),
+                TimeUnit.MILLISECONDS, breaker.getHalfOpenTrials());
+        this.acquireTimeoutNanos = rateLimit.getAcquireTimeout().toNanos();
+        this.maxAttempts = Math.max(1, retry.getMaxAttempts());
+        this.initialBackoffMillis = retry.getInitialBackoff().toMillis();
+        this.maxBackoffMillis = retry.getMaxBackoff().toMillis();
+        this.maxRetryAfterMillis = retry.getMaxRetryAfter().toMillis();
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        boolean idempotent = IDEMPOTENT.contains(request.getMethod());
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                throw new UpstreamUnavailableException("Circuit breaker open for employee API");
+            }
+            if (!rateLimiter.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                circuitBreaker.release();
+                throw new UpstreamUnavailableException("Client-side rate limit for employee API exhausted");
+            }
+
+            ClientHttpResponse response = null;
+            int status;
+            try {
+                response = loadBalancer != null
+                        ? loadBalancer.intercept(request, body, execution) : execution.execute(request, body);
+                status = response.getRawStatusCode();
+            } catch (IOException e) {
+                circuitBreaker.onFailure();
+                closeQuietly(response);
+                if (!idempotent || attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Retrying {} {} after I/O error: {}", request.getMethod(), request.getURI(), e.getMessage());
+                sleep(backoffMillis(attempt));
+                continue;
+            } catch (RuntimeException e) {
+                // Every way out of an attempt has to settle the breaker, or a half-open trial slot is never returned.
+                circuitBreaker.onFailure();
+                closeQuietly(response);
+                throw e;
+            }
+
+            if (status != 429 && status < 500) {
+                circuitBreaker.onSuccess();
+                return response;
+            }
+            circuitBreaker.onFailure();
+            boolean retryable = status == 429 || (idempotent && (status == 502 || status == 503 || status == 504));
+            if (!retryable || attempt >= maxAttempts) {
+                return response;
+            }
+            long delay = retryDelayMillis(response.getHeaders(), attempt);
+            if (delay > maxRetryAfterMillis) {
+                return response;
+            }
+            logger.debug("Retrying {} {} in {} ms after status {}", request.getMethod(), request.getURI(), delay, status);
+            response.close();
+            sleep(delay);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public TokenBucket getRateLimiter() {
+        return rateLimiter;
+    }
+
+    private long retryDelayMillis(HttpHeaders headers, int attempt) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                    return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+                } catch (DateTimeParseException ignored) {
+                    // fall back to our own backoff
+                }
+            }
+        }
+        return backoffMillis(attempt);
+    }
+
+    // Full jitter: uniform in [0, min(max, initial * 2^(attempt-1))].
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void closeQuietly(ClientHttpResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before retry");
+        }
+    }
+}
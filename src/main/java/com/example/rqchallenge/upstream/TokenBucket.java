@@ -0,0 +1,69 @@
+package com.example.rqchallenge.upstream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client-side token bucket: refills continuously at the configured rate up to the burst size. A non-positive
+ * rate disables limiting.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public boolean tryAcquire(long timeout, TimeUnit unit) {
+        if (tokensPerNano <= 0) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill(System.nanoTime());
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return true;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (waitNanos > deadline - System.nanoTime() || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    // For callers that must not park their thread: takes a token and returns zero, or returns how long until one
+    // is due, without taking it.
+    public synchronized long tryAcquireNow() {
+        if (tokensPerNano <= 0) {
+            return 0;
+        }
+        refill(System.nanoTime());
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    public synchronized double availableTokens() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
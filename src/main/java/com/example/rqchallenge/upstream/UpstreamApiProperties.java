@@ -0,0 +1,27 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "upstream.api")
+public class UpstreamApiProperties {
+
+    // Root of the employee API; the simulator profile points it at the in-process simulator.
+    private String baseUrl = "https://dummy.restapiexample.com/api/v1";
+
+    // Parse /employees incrementally for search, max-salary and top-k instead of binding the whole list.
+    private boolean streamingReads = false;
+
+    // Upper bound on concurrent upstream calls issued for one batch request; lowered to what the client-side rate
+    // limit can serve within its acquire timeout.
+    private int maxFanOut = 8;
+
+    // Bulk create/delete: writes kept in flight at once and the target dispatch rate. The rate is capped at the
+    // client-side rate limit, and zero paces at that limit (or not at all when it is off).
+    private int maxWriteConcurrency = 4;
+
+    private double writesPerSecond = 0;
+}
@@ -0,0 +1,51 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "upstream.balancer")
+public class UpstreamBalancerProperties {
+
+    // Base URLs of the upstream replicas, each standing in for upstream.api.base-url; empty means that one only.
+    private List<String> endpoints = new ArrayList<>();
+
+    // Consecutive failures (I/O errors or 5xx) after which a replica is taken out of rotation.
+    private int failureThreshold = 3;
+
+    // How long a replica that hit the failure threshold stays out before it gets traffic again.
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    // Path probed on every replica, relative to its base URL; empty leaves health to the failure counts alone.
+    private String healthCheckPath = "";
+
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    private final Hedging hedging = new Hedging();
+
+    @Getter
+    @Setter
+    public static class Hedging {
+
+        // Send a second GET to another replica when the first is slower than usual for its route.
+        private boolean enabled = false;
+
+        // Latency percentile of the route past which the hedge is sent.
+        private double percentile = 0.95;
+
+        // Hedges are never sent sooner than this, however fast the route usually is.
+        private Duration minDelay = Duration.ofMillis(10);
+
+        // Hedges allowed per GET on average, so hedging adds at most this fraction of extra load.
+        private double budget = 0.05;
+
+        // Unused hedge allowance that can build up for a burst of slow responses.
+        private int maxBurst = 10;
+    }
+}
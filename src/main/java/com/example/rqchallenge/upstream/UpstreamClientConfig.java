@@ -0,0 +1,81 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep-alive connection pool shared by every outbound call to the employee API.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(UpstreamClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upstreamHttpClient(PoolingHttpClientConnectionManager upstreamConnectionManager,
+                                                  UpstreamClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getPoolAcquireTimeout().toMillis())
+                .build();
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAlive().toMillis()))
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+        if (!properties.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public MeterBinder upstreamConnectionPoolMetrics(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, "employee-api");
+    }
+
+    // Through the provider, like the read coalescing counters: the interceptor is part of the RestTemplate that the
+    // registry's own customizer is still waiting on.
+    @Bean
+    public MeterBinder upstreamResilienceMetrics(ObjectProvider<ResilienceInterceptor> resilienceInterceptor) {
+        return registry -> {
+            Gauge.builder("employee.upstream.circuit.state", resilienceInterceptor,
+                            interceptor -> interceptor.getObject().getCircuitBreaker().getState().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .register(registry);
+            Gauge.builder("employee.upstream.rate.limit.tokens", resilienceInterceptor,
+                            interceptor -> interceptor.getObject().getRateLimiter().availableTokens())
+                    .description("Tokens left in the client-side rate limiter")
+                    .register(registry);
+        };
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+        return (response, context) -> {
+            long advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return advertised > 0 ? advertised : defaultKeepAliveMillis;
+        };
+    }
+}
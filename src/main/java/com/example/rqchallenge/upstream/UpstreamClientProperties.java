@@ -0,0 +1,38 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "upstream.client")
+public class UpstreamClientProperties {
+
+    private int maxConnectionsTotal = 100;
+
+    private int maxConnectionsPerRoute = 50;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    // How long a caller may wait for a pooled connection before failing fast.
+    private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+
+    // Used when the upstream does not send a Keep-Alive header.
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration maxIdleTime = Duration.ofSeconds(60);
+
+    // Pooled connections idle for longer than this are re-validated before reuse.
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private boolean compression = true;
+
+    // Largest response body the reactive WebClient will buffer when decoding.
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,75 @@
+package com.example.rqchallenge.upstream;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One upstream replica as seen by {@link UpstreamLoadBalancer}: an exponentially weighted moving average of its
+ * response time, the calls in flight to it and whether it is currently out of rotation.
+ */
+final class UpstreamEndpoint {
+
+    // Weight of the newest sample in the moving average.
+    private static final double ALPHA = 0.3;
+
+    private final String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double averageNanos;
+    private int consecutiveFailures;
+    private boolean ejected;
+    private long ejectedUntilNanos;
+    private boolean probeFailed;
+
+    UpstreamEndpoint(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    synchronized boolean isAvailable(long nowNanos) {
+        return !probeFailed && (!ejected || nowNanos - ejectedUntilNanos >= 0);
+    }
+
+    // Zero until the first response.
+    synchronized double getAverageNanos() {
+        return averageNanos;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    // Status below 500: the replica answered, whatever the answer.
+    synchronized void succeeded(long latencyNanos) {
+        inFlight.decrementAndGet();
+        averageNanos = averageNanos == 0 ? latencyNanos : ALPHA * latencyNanos + (1 - ALPHA) * averageNanos;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void failed(long nowNanos, int threshold, long ejectionNanos) {
+        inFlight.decrementAndGet();
+        // Still at the threshold after an ejection ends, so a single further failure takes it out again.
+        if (++consecutiveFailures >= threshold) {
+            ejected = true;
+            ejectedUntilNanos = nowNanos + ejectionNanos;
+        }
+    }
+
+    // A call we gave up on ourselves says nothing about the replica.
+    void cancelled() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void probed(boolean healthy) {
+        probeFailed = !healthy;
+        if (healthy) {
+            consecutiveFailures = 0;
+            ejected = false;
+        }
+    }
+}
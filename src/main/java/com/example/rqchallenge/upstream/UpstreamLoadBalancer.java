@@ -0,0 +1,587 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Spreads calls for upstream.api.base-url over the replicas in upstream.balancer.endpoints. Each call goes to a
+ * replica picked at random with weight inversely proportional to its average response time times its calls in
+ * flight, so slower or busier replicas get less traffic but still enough to notice when they recover. Replicas
+ * are taken out of rotation after consecutive failures and, when a health check path is set, while their probe
+ * fails; if none is left the call goes to any of them rather than failing here.
+ * <p>
+ * With hedging on, a GET that has not answered within the route's configured latency percentile is sent again
+ * to a different replica, or straight away when the first one fails. The first 2xx-4xx response wins and the other
+ * call is aborted; a 5xx is only returned when neither replica answers better. Hedges draw on a budget earned per
+ * GET, so slow periods cannot multiply the load on upstream.
+ * <p>
+ * Not registered on the RestTemplate itself: {@link ResilienceInterceptor}, the last interceptor, calls it for each
+ * attempt, so every retry picks its replica afresh. That also keeps hedging safe, since a hedge executes the
+ * request a second time, concurrently, which is only safe once no other interceptor is left in the chain.
+ * <p>
+ * Metrics: {@code employee.upstream.hedges} (sent, won or over_budget) and per endpoint
+ * {@code employee.upstream.endpoint.available} and {@code employee.upstream.endpoint.latency}.
+ */
+@Component
+public class UpstreamLoadBalancer implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamLoadBalancer.class);
+
+    // Samples per route behind the hedging percentile.
+    private static final int LATENCY_WINDOW = 512;
+
+    // Hedge budget is kept in thousandths of a hedge.
+    private static final long CREDIT = 1000;
+
+    private final String logicalBaseUrl;
+    private final List<UpstreamEndpoint> endpoints;
+    private final boolean passThrough;
+    private final UpstreamBalancerProperties.Hedging hedging;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final long minHedgeDelayNanos;
+    private final long creditPerGet;
+    private final long maxCredits;
+    private final AtomicLong hedgeCredits = new AtomicLong();
+    private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor attempts;
+    private final ScheduledExecutorService scheduler;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesOverBudget;
+
+    @Autowired
+    public UpstreamLoadBalancer(UpstreamApiProperties apiProperties, UpstreamBalancerProperties properties,
+                                UpstreamClientProperties clientProperties, MeterRegistry meterRegistry,
+                                HttpClient upstreamHttpClient) {
+        this(apiProperties.getBaseUrl(), properties, clientProperties.getMaxConnectionsTotal(), meterRegistry,
+                url -> probe(upstreamHttpClient, url));
+    }
+
+    /**
+     * @param maxThreads  bound on hedged calls in flight, primaries included; the connection pool size is natural
+     * @param healthProbe tells whether a health check URL answered healthily
+     */
+    UpstreamLoadBalancer(String baseUrl, UpstreamBalancerProperties properties, int maxThreads,
+                         MeterRegistry meterRegistry, Predicate<String> healthProbe) {
+        this.logicalBaseUrl = withoutTrailingSlash(baseUrl);
+        List<String> urls = properties.getEndpoints().isEmpty()
+                ? Collections.singletonList(baseUrl) : properties.getEndpoints();
+        List<UpstreamEndpoint> configured = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            configured.add(new UpstreamEndpoint(withoutTrailingSlash(url.trim())));
+        }
+        this.endpoints = Collections.unmodifiableList(configured);
+        this.passThrough = endpoints.size() == 1 && endpoints.get(0).getBaseUrl().equals(logicalBaseUrl);
+        this.hedging = properties.getHedging();
+        this.failureThreshold = Math.max(1, properties.getFailureThreshold());
+        this.ejectionNanos = properties.getEjectionTime().toNanos();
+        this.minHedgeDelayNanos = hedging.getMinDelay().toNanos();
+        this.creditPerGet = Math.round(Math.max(0, hedging.getBudget()) * CREDIT);
+        this.maxCredits = Math.max(1, hedging.getMaxBurst()) * CREDIT;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.attempts = new ThreadPoolExecutor(0, Math.max(2, maxThreads), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "upstream-hedge-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHealthCheckInterval().toMillis();
+        String path = properties.getHealthCheckPath();
+        if (endpoints.size() > 1 && path != null && !path.isEmpty() && interval > 0) {
+            scheduler.scheduleWithFixedDelay(() -> probeEndpoints(healthProbe, path), 0, interval,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        this.hedgesSent = hedgeCounter(meterRegistry, "sent");
+        this.hedgesWon = hedgeCounter(meterRegistry, "won");
+        this.hedgesOverBudget = hedgeCounter(meterRegistry, "over_budget");
+        for (UpstreamEndpoint endpoint : endpoints) {
+            Gauge.builder("employee.upstream.endpoint.available", endpoint,
+                            e -> e.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .description("Whether the replica is in rotation")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+            TimeGauge.builder("employee.upstream.endpoint.latency", endpoint, TimeUnit.NANOSECONDS,
+                            UpstreamEndpoint::getAverageNanos)
+                    .description("Moving average of the replica's response time")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        attempts.shutdown();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String uri = request.getURI().toString();
+        if (passThrough || !uri.startsWith(logicalBaseUrl)) {
+            return execution.execute(request, body);
+        }
+        String path = uri.substring(logicalBaseUrl.length());
+        UpstreamEndpoint first = choose(null);
+        if (!hedging.isEnabled() || request.getMethod() != HttpMethod.GET || endpoints.size() < 2) {
+            return new Attempt(first, request, path, body, execution, null, true).execute();
+        }
+
+        depositHedgeCredit();
+        LatencyWindow window = latencies.computeIfAbsent(UpstreamMetricsInterceptor.route(request.getURI().getPath()),
+                route -> new LatencyWindow(LATENCY_WINDOW, hedging.getPercentile()));
+        long percentile = window.percentileNanos();
+        Attempt primary = new Attempt(first, request, path, body, execution, window, true);
+        if (percentile < 0) {
+            // Not enough samples yet to tell a slow response from a normal one.
+            return primary.execute();
+        }
+        return hedged(primary, Math.max(minHedgeDelayNanos, percentile));
+    }
+
+    // A random available replica other than the excluded one, weighted towards fast and idle ones.
+    UpstreamEndpoint choose(UpstreamEndpoint exclude) {
+        long now = System.nanoTime();
+        List<UpstreamEndpoint> candidates = new ArrayList<>(endpoints.size());
+        for (UpstreamEndpoint endpoint : endpoints) {
+            if (endpoint != exclude && endpoint.isAvailable(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            if (exclude != null) {
+                return null;
+            }
+            // Nothing healthy: better to try than to fail here; the circuit breaker deals with a full outage.
+            candidates = endpoints;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        // Replicas without a measurement yet count as the fastest measured one, so they get tried.
+        double fastest = 0;
+        for (UpstreamEndpoint candidate : candidates) {
+            double average = candidate.getAverageNanos();
+            if (average > 0 && (fastest == 0 || average < fastest)) {
+                fastest = average;
+            }
+        }
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            UpstreamEndpoint candidate = candidates.get(i);
+            double average = candidate.getAverageNanos() > 0 ? candidate.getAverageNanos() : Math.max(1, fastest);
+            weights[i] = 1 / (average * (candidate.getInFlight() + 1));
+            total += weights[i];
+        }
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length - 1; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(weights.length - 1);
+    }
+
+    private ClientHttpResponse hedged(Attempt primary, long delayNanos) throws IOException {
+        Race race = new Race();
+        if (!race.start(primary)) {
+            // No spare thread, so there would be none for a hedge either.
+            return primary.execute();
+        }
+        try {
+            // Back early without a response when the primary failed, so the other replica is tried at once.
+            ClientHttpResponse response = race.await(delayNanos);
+            if (response != null) {
+                return response;
+            }
+            UpstreamEndpoint other = choose(primary.endpoint);
+            if (other != null) {
+                if (!tryWithdrawHedgeCredit()) {
+                    hedgesOverBudget.increment();
+                } else if (race.start(primary.to(other))) {
+                    hedgesSent.increment();
+                } else {
+                    refundHedgeCredit();
+                }
+            }
+            race.close();
+            return race.await(-1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.abandon();
+            throw new InterruptedIOException("Interrupted while waiting for the employee API");
+        }
+    }
+
+    private void depositHedgeCredit() {
+        long current;
+        do {
+            current = hedgeCredits.get();
+            if (current >= maxCredits) {
+                return;
+            }
+        } while (!hedgeCredits.compareAndSet(current, Math.min(maxCredits, current + creditPerGet)));
+    }
+
+    private boolean tryWithdrawHedgeCredit() {
+        long current;
+        do {
+            current = hedgeCredits.get();
+            if (current < CREDIT) {
+                return false;
+            }
+        } while (!hedgeCredits.compareAndSet(current, current - CREDIT));
+        return true;
+    }
+
+    private void refundHedgeCredit() {
+        hedgeCredits.addAndGet(CREDIT);
+    }
+
+    private void probeEndpoints(Predicate<String> healthProbe, String path) {
+        for (UpstreamEndpoint endpoint : endpoints) {
+            boolean healthy;
+            try {
+                healthy = healthProbe.test(endpoint.getBaseUrl() + path);
+            } catch (RuntimeException e) {
+                healthy = false;
+            }
+            if (!healthy && endpoint.isAvailable(System.nanoTime())) {
+                logger.warn("Upstream endpoint {} failed its health check; taking it out of rotation",
+                        endpoint.getBaseUrl());
+            }
+            endpoint.probed(healthy);
+        }
+    }
+
+    private static boolean probe(HttpClient client, String url) {
+        try {
+            return client.execute(new HttpGet(url), response -> response.getStatusLine().getStatusCode() < 500);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Counter hedgeCounter(MeterRegistry registry, String result) {
+        return Counter.builder("employee.upstream.hedges")
+                .description("Hedged GETs: sent to a second replica, won by it, or skipped for lack of budget")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void closeQuietly(ClientHttpResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    private static String withoutTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * One call of a request to one replica. Runs on the caller's thread or, when hedged, on a pool thread; the
+     * execution is past every other interceptor by then, so two attempts may use it at the same time.
+     */
+    private final class Attempt {
+
+        private final UpstreamEndpoint endpoint;
+        private final HttpRequest original;
+        private final String path;
+        private final byte[] body;
+        private final ClientHttpRequestExecution execution;
+        private final LatencyWindow window;
+        private final boolean primary;
+        private volatile boolean cancelled;
+        private volatile Runnable abort;
+
+        Attempt(UpstreamEndpoint endpoint, HttpRequest original, String path, byte[] body,
+                ClientHttpRequestExecution execution, LatencyWindow window, boolean primary) {
+            this.endpoint = endpoint;
+            this.original = original;
+            this.path = path;
+            this.body = body;
+            this.execution = execution;
+            this.window = window;
+            this.primary = primary;
+        }
+
+        Attempt to(UpstreamEndpoint other) {
+            return new Attempt(other, original, path, body, execution, window, false);
+        }
+
+        ClientHttpResponse execute() throws IOException {
+            URI uri = URI.create(endpoint.getBaseUrl() + path);
+            HttpRequest request = new HttpRequestWrapper(original) {
+                @Override
+                public URI getURI() {
+                    return uri;
+                }
+            };
+            endpoint.started();
+            long start = System.nanoTime();
+            ClientHttpResponse response;
+            int status;
+            try {
+                response = AbortableClientHttpRequestFactory.withAbortHandler(this::abortable,
+                        () -> execution.execute(request, body));
+                try {
+                    status = response.getRawStatusCode();
+                } catch (IOException e) {
+                    response.close();
+                    throw e;
+                }
+            } catch (IOException | RuntimeException e) {
+                long now = System.nanoTime();
+                if (cancelled) {
+                    endpoint.cancelled();
+                    // The primary was at least this slow; leaving it out would bias the percentile low.
+                    if (primary && window != null) {
+                        window.record(now - start);
+                    }
+                } else {
+                    endpoint.failed(now, failureThreshold, ejectionNanos);
+                }
+                throw e;
+            }
+            long latency = System.nanoTime() - start;
+            if (status >= 500) {
+                endpoint.failed(System.nanoTime(), failureThreshold, ejectionNanos);
+            } else {
+                endpoint.succeeded(latency);
+            }
+            if (window != null) {
+                window.record(latency);
+            }
+            return response;
+        }
+
+        void cancel() {
+            cancelled = true;
+            Runnable action = abort;
+            if (action != null) {
+                action.run();
+            }
+        }
+
+        // Either this or cancel runs the abort, whichever comes second.
+        private void abortable(Runnable action) {
+            abort = action;
+            if (cancelled) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * The attempts of one hedged call. A 2xx-4xx response completes the result and cancels the rest. A 5xx or an
+     * exception does not: the other attempt may still answer, and until {@link #close()} the caller may start one.
+     * Once every attempt has ended without an answer, the first 5xx response is the result, or else the first failure.
+     */
+    private final class Race {
+
+        private final CompletableFuture<ClientHttpResponse> result = new CompletableFuture<>();
+        private final List<Attempt> started = new ArrayList<>(2);
+        private int running;
+        // Set once no further attempt will be started.
+        private boolean closed;
+        private ClientHttpResponse fallback;
+        private Exception failure;
+
+        boolean start(Attempt attempt) {
+            synchronized (this) {
+                if (result.isDone() || closed) {
+                    return false;
+                }
+                started.add(attempt);
+                running++;
+            }
+            try {
+                attempts.execute(() -> run(attempt));
+                return true;
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    started.remove(attempt);
+                    ended();
+                }
+                return false;
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                if (running == 0) {
+                    settle();
+                }
+            }
+        }
+
+        /**
+         * The response, or null when the timeout passed first or every attempt so far ended without an answer while
+         * the race is still open. A negative timeout waits for the outcome.
+         */
+        ClientHttpResponse await(long timeoutNanos) throws IOException, InterruptedException {
+            synchronized (this) {
+                long deadline = System.nanoTime() + timeoutNanos;
+                while (!result.isDone() && running > 0) {
+                    if (timeoutNanos < 0) {
+                        wait();
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return null;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+                if (!result.isDone()) {
+                    return null;
+                }
+            }
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        void abandon() {
+            cancelAllBut(null);
+            close();
+            result.thenAccept(ClientHttpResponse::close);
+        }
+
+        private void run(Attempt attempt) {
+            ClientHttpResponse response;
+            int status;
+            try {
+                response = attempt.execute();
+                status = response.getRawStatusCode();
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    ended();
+                }
+                return;
+            }
+            if (status >= 500) {
+                synchronized (this) {
+                    if (fallback == null && !result.isDone()) {
+                        fallback = response;
+                        response = null;
+                    }
+                    ended();
+                }
+                closeQuietly(response);
+                return;
+            }
+            boolean won;
+            ClientHttpResponse unused;
+            synchronized (this) {
+                won = result.complete(response);
+                // Counted before the waiting caller can see the result.
+                if (won && !attempt.primary) {
+                    hedgesWon.increment();
+                }
+                unused = won ? fallback : response;
+                fallback = null;
+                running--;
+                notifyAll();
+            }
+            closeQuietly(unused);
+            if (won) {
+                cancelAllBut(attempt);
+            }
+        }
+
+        // Called holding the lock when an attempt ends without an answer.
+        private void ended() {
+            running--;
+            if (running == 0 && closed) {
+                settle();
+            }
+            notifyAll();
+        }
+
+        // Called holding the lock once no attempt is running and none will start.
+        private void settle() {
+            if (fallback != null) {
+                result.complete(fallback);
+                fallback = null;
+            } else if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.completeExceptionally(new IOException("No attempt reached the employee API"));
+            }
+            notifyAll();
+        }
+
+        private void cancelAllBut(Attempt winner) {
+            List<Attempt> losers;
+            synchronized (this) {
+                losers = new ArrayList<>(started);
+            }
+            for (Attempt attempt : losers) {
+                if (attempt != winner) {
+                    attempt.cancel();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.regex.Pattern;
+
+/**
+ * Times every logical call to the employee API, retries included, as {@code employee.upstream.requests} tagged
+ * with method, templated uri and outcome (2xx, 4xx, 429, 5xx, timeout, rejected or io_error). The timer stops
+ * when the response is closed, so it covers reading the body as well. Request and response body sizes are
+ * recorded as {@code employee.upstream.request.size} and {@code employee.upstream.response.size}.
+ * <p>
+ * Must sit in front of {@link ResilienceInterceptor} to see calls the breaker or rate limiter rejected.
+ */
+@Component
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(employee|delete)/[^/]+");
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String method = request.getMethodValue();
+        String uri = route(request.getURI().getPath());
+        if (body.length > 0) {
+            summary("employee.upstream.request.size", method, uri).record(body.length);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (UpstreamUnavailableException e) {
+            stop(sample, method, uri, "rejected");
+            throw e;
+        } catch (InterruptedIOException e) {
+            stop(sample, method, uri, "timeout");
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            stop(sample, method, uri, "io_error");
+            throw e;
+        }
+        return new MeteredResponse(response, sample, method, uri, outcome(response.getRawStatusCode()));
+    }
+
+    // The path with ids templated out, so all lookups by id share one series.
+    static String route(String path) {
+        return ID_SEGMENT.matcher(path).replaceAll("/$1/{id}");
+    }
+
+    static String outcome(int status) {
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return "429";
+        }
+        return status / 100 + "xx";
+    }
+
+    private void stop(Timer.Sample sample, String method, String uri, String outcome) {
+        sample.stop(Timer.builder("employee.upstream.requests")
+                .description("Calls to the employee API, retries included")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Timer.Sample sample;
+        private final String method;
+        private final String uri;
+        private final String outcome;
+        private CountingInputStream body;
+        private boolean closed;
+
+        MeteredResponse(ClientHttpResponse delegate, Timer.Sample sample, String method, String uri, String outcome) {
+            this.delegate = delegate;
+            this.sample = sample;
+            this.method = method;
+            this.uri = uri;
+            this.outcome = outcome;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return delegate.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                stop(sample, method, uri, outcome);
+                if (body != null) {
+                    summary("employee.upstream.response.size", method, uri).record(body.count);
+                }
+            }
+            delegate.close();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+        // RestTemplate peeks at the body through mark and reset; the re-read bytes are not counted twice.
+        private long markedCount;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            super.mark(readLimit);
+            markedCount = count;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            super.reset();
+            count = markedCount;
+        }
+    }
+}
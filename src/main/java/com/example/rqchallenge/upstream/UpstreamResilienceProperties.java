@@ -0,0 +1,75 @@
+package com.example.rqchallenge.upstream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "upstream.resilience")
+public class UpstreamResilienceProperties {
+
+    private final RateLimit rateLimit = new RateLimit();
+    private final Retry retry = new Retry();
+    private final Breaker circuitBreaker = new Breaker();
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        // Should match the upstream quota; zero disables the limiter.
+        private double permitsPerSecond = 5;
+
+        private int burst = 10;
+
+        // How long a call may wait for a token before failing with 503 instead of provoking a 429. Long enough for
+        // upstream.api.max-fan-out callers to queue behind a drained bucket at permits-per-second.
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        // The rate a caller pacing itself should dispatch at: what it asked for, capped at this limit, or the limit
+        // itself when it asked for none (zero).
+        public double pacedRate(double requested) {
+            if (permitsPerSecond <= 0) {
+                return requested;
+            }
+            return requested > 0 ? Math.min(requested, permitsPerSecond) : permitsPerSecond;
+        }
+
+        // How many calls may wait on the bucket at once: once it is drained the k-th waiter gets its token after
+        // k / permits-per-second, so more than that many within acquire-timeout would be failed rather than slowed.
+        public int maxConcurrentCallers(int requested) {
+            if (permitsPerSecond <= 0) {
+                return requested;
+            }
+            long served = (long) (permitsPerSecond * acquireTimeout.toNanos() / 1_000_000_000d);
+            return (int) Math.max(1, Math.min(requested, served));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(200);
+
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+        // A Retry-After longer than this is not waited out; the throttled response is returned instead.
+        private Duration maxRetryAfter = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        private int halfOpenTrials = 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.rqchallenge.upstream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Raised without contacting upstream when the circuit breaker is open or the client-side rate limit is exhausted.
+ * It is a 503 {@link HttpServerErrorException}, so callers that already map upstream errors to statuses need no
+ * special handling.
+ */
+public class UpstreamUnavailableException extends HttpServerErrorException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamUnavailableException(String reason) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+    }
+}
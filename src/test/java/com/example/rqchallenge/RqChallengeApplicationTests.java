@@ -1,13 +1,26 @@
 package com.example.rqchallenge;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 class RqChallengeApplicationTests {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void testRedisIsNotConfiguredWithoutTheRedisSharedCache() {
+        assertEquals(0, context.getBeanNamesForType(RedisConnectionFactory.class).length);
+    }
+
 }
@@ -0,0 +1,317 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeePage;
+import com.example.rqchallenge.service.EmployeeField;
+import com.example.rqchallenge.service.NameMatch;
+import com.example.rqchallenge.service.EmployeeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class CachingEmployeeServiceTest {
+
+    @Mock
+    private EmployeeServiceImpl delegate;
+
+    private MutableClock clock;
+    private CachingEmployeeService cachingService;
+    private List<Employee> employees;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clock = new MutableClock();
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        properties.setTtl(Duration.ofSeconds(30));
+        properties.setMaxStaleness(Duration.ofMinutes(5));
+        cachingService = new CachingEmployeeService(delegate, properties, clock, new SimpleMeterRegistry(), null);
+        employees = Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("2", "Garrett Winters", 170750, "63", "")
+        );
+        streamUpstream(delegate, employees);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cachingService.shutdown();
+    }
+
+    @Test
+    void testReadsWithinTtlHitUpstreamOnce() {
+        cachingService.getAllEmployees();
+        cachingService.getEmployeesByNameSearch("Tiger Nixon");
+        assertEquals(320800, cachingService.getHighestSalaryOfEmployees());
+
+        verify(delegate, times(1)).forEachEmployee(any());
+    }
+
+    @Test
+    void testStaleSnapshotIsServedWhileRefreshingInBackground() {
+        cachingService.getAllEmployees();
+        clock.advance(Duration.ofSeconds(45));
+
+        List<Employee> result = cachingService.getAllEmployees();
+
+        assertEquals(ids(employees), ids(result));
+        verify(delegate, timeout(1000).times(2)).forEachEmployee(any());
+    }
+
+    @Test
+    void testFreshnessCheckNeverLoads() {
+        assertFalse(cachingService.isSnapshotFresh());
+        cachingService.getAllEmployees();
+        assertTrue(cachingService.isSnapshotFresh());
+
+        clock.advance(Duration.ofSeconds(45));
+
+        assertFalse(cachingService.isSnapshotFresh());
+        verify(delegate, times(1)).forEachEmployee(any());
+    }
+
+    @Test
+    void testSnapshotBeyondMaxStalenessIsReloadedSynchronously() {
+        cachingService.getAllEmployees();
+        clock.advance(Duration.ofMinutes(6));
+
+        cachingService.getAllEmployees();
+
+        verify(delegate, times(2)).forEachEmployee(any());
+    }
+
+    @Test
+    void testGetEmployeeByIdServedFromSnapshot() {
+        assertEquals("Garrett Winters", cachingService.getEmployeeById("2").getData().getEmployeeName());
+        verify(delegate, never()).getEmployeeById(anyString());
+    }
+
+    @Test
+    void testBatchMissesAreMatchedToTheRequestedIds() {
+        when(delegate.getEmployeesKeyedByIds(eq(Arrays.asList("9", "007")), any())).thenAnswer(invocation -> {
+            invocation.<Map<String, String>>getArgument(1).put("9", "Employee not found");
+            return Collections.singletonMap("007", new Employee("7", "Ashton Cox", 86000, "66", ""));
+        });
+
+        EmployeeBatchResponse batch = cachingService.getEmployeesByIds(Arrays.asList("2", "9", "007"));
+
+        assertEquals(Arrays.asList("2", "7"), Arrays.asList(batch.getData().get(0).getId(),
+                batch.getData().get(1).getId()));
+        assertEquals(Collections.singletonMap("9", "Employee not found"), batch.getErrors());
+    }
+
+    @Test
+    void testDeleteIsWrittenThroughToSnapshot() {
+        cachingService.getAllEmployees();
+        cachingService.deleteEmployee("1");
+
+        List<Employee> result = cachingService.getAllEmployees();
+
+        assertEquals(1, result.size());
+        assertEquals(170750, cachingService.getHighestSalaryOfEmployees());
+        assertTrue(cachingService.getEmployeesByNameSearch("Tiger Nixon").isEmpty());
+        verify(delegate, times(1)).deleteEmployee("1");
+        verify(delegate, times(1)).forEachEmployee(any());
+    }
+
+    @Test
+    void testCreateIsWrittenThroughToSnapshot() {
+        cachingService.getAllEmployees();
+        Employee request = new Employee(null, "Cedric Kelly", 433060, "22", "");
+        EmployeeByIdResponse created = new EmployeeByIdResponse();
+        created.setData(new Employee("3", null, 0, null, null));
+        when(delegate.createEmployee(request)).thenReturn(created);
+
+        cachingService.createEmployee(request);
+
+        assertEquals(433060, cachingService.getHighestSalaryOfEmployees());
+        assertEquals("Cedric Kelly", cachingService.getEmployeeById("3").getData().getEmployeeName());
+        assertEquals(1, cachingService.searchEmployeesByName("kell", NameMatch.CONTAINS, 0).size());
+        verify(delegate, times(1)).forEachEmployee(any());
+    }
+
+    @Test
+    void testPagesAreServedFromSnapshotIndexes() {
+        EmployeePage bySalary = cachingService.getEmployeesPage(EmployeeField.SALARY, false, 0, 1);
+        EmployeePage byName = cachingService.getEmployeesPage(EmployeeField.NAME, false, 1, 10);
+
+        assertEquals(2, bySalary.getTotal());
+        assertEquals("Garrett Winters", bySalary.getData().get(0).getEmployeeName());
+        assertEquals("Tiger Nixon", byName.getData().get(0).getEmployeeName());
+        assertEquals(1, byName.getData().size());
+        assertTrue(cachingService.getEmployeesPage(null, false, 5, 10).getData().isEmpty());
+        verify(delegate, times(1)).forEachEmployee(any());
+    }
+
+    @Test
+    void testHitsMissesAndRefreshesAreCounted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        CachingEmployeeService metered = new CachingEmployeeService(delegate, properties, clock, registry, null);
+        try {
+            metered.getAllEmployees();
+            metered.getEmployeeById("1");
+            metered.getEmployeeById("99");
+
+            assertEquals(1, registry.get("employee.cache.requests").tag("result", "miss").counter().count());
+            assertEquals(2, registry.get("employee.cache.requests").tag("result", "hit").counter().count());
+            assertEquals(1, registry.get("employee.cache.lookups").tag("result", "miss").counter().count());
+            assertEquals(1, registry.get("employee.cache.refresh")
+                    .tags("trigger", "load", "outcome", "success").timer().count());
+            assertEquals(2, registry.get("employee.cache.snapshot.size").gauge().value());
+        } finally {
+            metered.shutdown();
+        }
+    }
+
+    @Test
+    void testPersistedSnapshotIsServedOnRestartAndRevalidated(@TempDir Path directory) throws IOException {
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        properties.setSnapshotFile(directory.resolve("employees.bin").toString());
+        properties.setPersistInterval(Duration.ZERO);
+        CachingEmployeeService first =
+                new CachingEmployeeService(delegate, properties, clock, new SimpleMeterRegistry(), null);
+        first.getAllEmployees();
+        first.persist();
+        first.shutdown();
+
+        clock.advance(Duration.ofHours(1));
+        CachingEmployeeService restarted =
+                new CachingEmployeeService(delegate, properties, clock, new SimpleMeterRegistry(), null);
+        try {
+            assertEquals("Tiger Nixon", restarted.getEmployeeById("1").getData().getEmployeeName());
+            verify(delegate, timeout(1000).times(2)).forEachEmployee(any());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void testInstancesShareOneUpstreamLoadAndEachOthersWrites() {
+        InMemorySharedSnapshotCache shared = new InMemorySharedSnapshotCache(clock);
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        EmployeeServiceImpl peerDelegate = mock(EmployeeServiceImpl.class);
+        CachingEmployeeService first =
+                new CachingEmployeeService(delegate, properties, clock, new SimpleMeterRegistry(), shared);
+        CachingEmployeeService second =
+                new CachingEmployeeService(peerDelegate, properties, clock, new SimpleMeterRegistry(), shared);
+        try {
+            first.getAllEmployees();
+            assertEquals(ids(employees), ids(second.getAllEmployees()));
+            verify(peerDelegate, never()).forEachEmployee(any());
+
+            first.deleteEmployee("1");
+
+            assertEquals(1, second.getAllEmployees().size());
+            assertEquals(-1, shared.getFetchedAtMillis());
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void testSharedSnapshotFetchedBeforeAWriteIsNotTaken() {
+        InMemorySharedSnapshotCache shared = new InMemorySharedSnapshotCache(clock);
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        EmployeeServiceImpl peerDelegate = mock(EmployeeServiceImpl.class);
+        streamUpstream(peerDelegate, Collections.singletonList(employees.get(1)));
+        CachingEmployeeService first =
+                new CachingEmployeeService(delegate, properties, clock, new SimpleMeterRegistry(), shared);
+        CachingEmployeeService second =
+                new CachingEmployeeService(peerDelegate, properties, clock, new SimpleMeterRegistry(), shared);
+        try {
+            first.getAllEmployees();
+            EmployeeSnapshot beforeWrite = shared.get();
+            clock.advance(Duration.ofSeconds(1));
+            second.deleteEmployee("1");
+            // A peer that was loading during the delete puts its older copy back afterwards.
+            shared.put(beforeWrite);
+
+            assertEquals(1, second.getAllEmployees().size());
+            verify(peerDelegate, times(1)).forEachEmployee(any());
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void testLoadGoesUpstreamWhenLeaseHolderDoesNotDeliver() {
+        InMemorySharedSnapshotCache shared = new InMemorySharedSnapshotCache(clock);
+        shared.tryAcquireRefreshLease("peer", Duration.ofMinutes(1));
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        properties.getShared().setLeaseWait(Duration.ofMillis(50));
+        CachingEmployeeService service =
+                new CachingEmployeeService(delegate, properties, clock, new SimpleMeterRegistry(), shared);
+        try {
+            assertEquals(ids(employees), ids(service.getAllEmployees()));
+            verify(delegate, times(1)).forEachEmployee(any());
+            assertEquals(-1, shared.getFetchedAtMillis());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    // Snapshot loads stream /employees through forEachEmployee rather than calling getAllEmployees.
+    private static void streamUpstream(EmployeeServiceImpl upstream, List<Employee> employees) {
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).when(upstream).forEachEmployee(any());
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeChangeFeedTest {
+
+    @Test
+    void testEventsAreNumberedAndReadBackInOrder() {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(8);
+        feed.publish(Arrays.asList(
+                EmployeeDelta.created(new Employee("5", "Airi Satou", 162700, "33", "")),
+                EmployeeDelta.deleted("1")), 7);
+
+        List<EmployeeChangeEvent> events = feed.since(0);
+
+        assertEquals(2, feed.getLastSequence());
+        assertEquals(2, events.size());
+        assertEquals(1, events.get(0).getSequence());
+        assertEquals(EmployeeChangeEvent.CREATED, events.get(0).getType());
+        assertEquals("Airi Satou", events.get(0).getData().getEmployeeName());
+        assertEquals(EmployeeChangeEvent.DELETED, events.get(1).getType());
+        assertEquals("1", events.get(1).getId());
+        assertEquals(7, events.get(1).getVersion());
+        assertEquals(1, feed.since(1).size());
+        assertTrue(feed.since(2).isEmpty());
+    }
+
+    @Test
+    void testReaderTooFarBehindGetsNull() {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(2);
+        for (int i = 1; i <= 3; i++) {
+            feed.publish(Collections.singletonList(EmployeeDelta.deleted(String.valueOf(i))), i);
+        }
+
+        List<EmployeeChangeEvent> events = feed.since(1);
+
+        assertNull(feed.since(0));
+        assertEquals(2, events.size());
+        assertEquals("2", events.get(0).getId());
+        assertEquals("3", events.get(1).getId());
+    }
+
+    @Test
+    void testOnlyIdsFromThisEpochCanBeResumedFrom() {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(4, "a1");
+        feed.publish(Arrays.asList(EmployeeDelta.deleted("1"), EmployeeDelta.deleted("2")), 1);
+
+        assertEquals("a1-2", feed.eventId(2));
+        assertEquals(1, feed.resumeAfter("a1-1"));
+        assertEquals(-1, feed.resumeAfter("b7-1"));
+        assertEquals(-1, feed.resumeAfter("1"));
+        assertEquals(-1, feed.resumeAfter("a1-x"));
+        assertNull(feed.since(-1));
+        // A sequence this feed never reached came from an earlier process or another replica.
+        assertNull(feed.since(5));
+    }
+
+    @Test
+    void testListenersAreWokenUntilUnsubscribed() {
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(4);
+        AtomicInteger wakeUps = new AtomicInteger();
+        Runnable unsubscribe = feed.subscribe(wakeUps::incrementAndGet);
+
+        feed.publish(Collections.singletonList(EmployeeDelta.deleted("1")), 1);
+        feed.publish(Collections.<EmployeeDelta>emptyList(), 1);
+        feed.publishReset(2);
+        unsubscribe.run();
+        feed.publishReset(3);
+
+        assertEquals(2, wakeUps.get());
+        assertEquals(EmployeeChangeEvent.RESET, feed.since(2).get(0).getType());
+    }
+}
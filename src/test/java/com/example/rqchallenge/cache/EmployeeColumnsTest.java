@@ -0,0 +1,113 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmployeeColumnsTest {
+
+    @Test
+    void testRowsRoundTripIncludingValuesOutsideTheIntColumns() {
+        List<Employee> employees = Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("e-42", "Garrett Winters", 170750, "unknown", null),
+                new Employee("007", null, 0, null, "https://example.com/a.png"),
+                new Employee(null, "Ashton Cox", -5, "-2147483648", ""));
+
+        EmployeeColumns columns = EmployeeColumns.build(employees);
+
+        assertEquals(4, columns.rows());
+        for (int row = 0; row < employees.size(); row++) {
+            assertSameFields(employees.get(row), columns.employee(row));
+        }
+    }
+
+    @Test
+    void testBuilderGrowsPastItsInitialCapacity() {
+        List<Employee> employees = new ArrayList<>();
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder(2);
+        for (int i = 0; i < 37; i++) {
+            Employee employee = new Employee(String.valueOf(i), "E" + i, i, "30", "https://example.com/" + (i % 3));
+            employees.add(employee);
+            builder.add(employee);
+        }
+
+        EmployeeColumns columns = builder.build();
+
+        assertEquals(employees.size(), columns.rows());
+        for (int row = 0; row < employees.size(); row++) {
+            assertSameFields(employees.get(row), columns.employee(row));
+        }
+    }
+
+    @Test
+    void testAppendLeavesEarlierColumnsUntouched() {
+        EmployeeColumns columns = EmployeeColumns.build(
+                Arrays.asList(new Employee("1", "Tiger Nixon", 320800, "61", "")));
+
+        EmployeeColumns appended = columns.withAppended(new Employee("x", "Tiger Nixon", 1, "n/a", ""));
+
+        assertEquals(1, columns.rows());
+        assertEquals(2, appended.rows());
+        assertEquals("x", appended.id(1));
+        assertEquals("n/a", appended.age(1));
+        assertEquals("61", appended.age(0));
+    }
+
+    @Test
+    void testAppendedImagesReuseTheDictionary() {
+        EmployeeColumns columns = EmployeeColumns.build(Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", "https://example.com/a.png"),
+                new Employee("2", "Garrett Winters", 170750, "63", "")));
+
+        EmployeeColumns appended = columns.withAppended(Arrays.asList(
+                new Employee("3", "Ashton Cox", 86000, "66", ""),
+                new Employee("4", "Cedric Kelly", 433060, "22", "https://example.com/b.png"),
+                new Employee("5", "Airi Satou", 162700, "33", "https://example.com/b.png")))
+                .withAppended(new Employee("6", "Brielle Williamson", 372000, "61", "https://example.com/b.png"));
+
+        assertEquals("", appended.profileImage(2));
+        assertEquals("https://example.com/b.png", appended.profileImage(3));
+        assertEquals("https://example.com/b.png", appended.profileImage(5));
+        assertEquals("https://example.com/a.png", appended.profileImage(0));
+        assertEquals(null, columns.withAppended(new Employee("7", "Rhona Davidson", 1, "55", null)).profileImage(2));
+    }
+
+    @Test
+    void testIdIndexFindsNumericAndTextIds() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(new Employee(i % 10 == 0 ? "id-" + i : String.valueOf(i), "E" + i, i, "30", ""));
+        }
+        EmployeeColumns columns = EmployeeColumns.build(employees);
+        int[] rows = new int[employees.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        EmployeeIdIndex index = EmployeeIdIndex.build(columns, rows);
+
+        assertEquals(7, index.find(columns, "7"));
+        assertEquals(30, index.find(columns, "id-30"));
+        assertEquals(-1, index.find(columns, "07"));
+        assertEquals(-1, index.find(columns, "30"));
+
+        EmployeeColumns grown = columns.withAppended(new Employee("7", "Replaced", 1, "30", ""));
+        EmployeeIdIndex updated = index.without(7).with(grown, 100);
+        assertEquals(100, updated.find(grown, "7"));
+        assertEquals(7, index.find(columns, "7"));
+        assertEquals(-1, index.without(30).find(columns, "id-30"));
+    }
+
+    private static void assertSameFields(Employee expected, Employee actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getEmployeeName(), actual.getEmployeeName());
+        assertEquals(expected.getEmployeeSalary(), actual.getEmployeeSalary());
+        assertEquals(expected.getEmployeeAge(), actual.getEmployeeAge());
+        assertEquals(expected.getProfileImage(), actual.getProfileImage());
+    }
+}
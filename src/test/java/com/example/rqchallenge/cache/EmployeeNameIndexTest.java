@@ -0,0 +1,65 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.service.NameMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmployeeNameIndexTest {
+
+    private EmployeeColumns columns;
+    private EmployeeNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        columns = EmployeeColumns.build(Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("2", "Garrett Winters", 170750, "63", ""),
+                new Employee("3", "Ashton Cox", 86000, "66", ""),
+                new Employee("4", "Garrett Winters", 90000, "40", "")
+        ));
+        index = EmployeeNameIndex.build(columns, new int[]{0, 1, 2, 3});
+    }
+
+    @Test
+    void testExactMatchIsCaseInsensitive() {
+        assertEquals(Arrays.asList("2", "4"), ids(index.search("garrett WINTERS", NameMatch.EXACT, 0)));
+    }
+
+    @Test
+    void testPrefixMatch() {
+        assertEquals(Arrays.asList("3"), ids(index.search("Ash", NameMatch.PREFIX, 0)));
+    }
+
+    @Test
+    void testSubstringMatchUsesTrigramsAndShortQueries() {
+        assertEquals(Arrays.asList("1"), ids(index.search("nixo", NameMatch.CONTAINS, 0)));
+        assertEquals(Arrays.asList("3", "1"), ids(index.search("x", NameMatch.CONTAINS, 0)));
+        assertEquals(0, index.search("xyz", NameMatch.CONTAINS, 0).length);
+    }
+
+    @Test
+    void testLimitCapsResults() {
+        assertEquals(1, index.search("garrett", NameMatch.PREFIX, 1).length);
+    }
+
+    @Test
+    void testIncrementalAddAndRemove() {
+        columns = columns.withAppended(new Employee("5", "Cedric Kelly", 433060, "22", ""));
+        EmployeeNameIndex updated = index.withAdded(4, "Cedric Kelly").withRemoved(0, "Tiger Nixon");
+
+        assertEquals(Arrays.asList("5"), ids(updated.search("kell", NameMatch.CONTAINS, 0)));
+        assertEquals(0, updated.search("nixon", NameMatch.CONTAINS, 0).length);
+        assertEquals(Arrays.asList("1"), ids(index.search("nixon", NameMatch.CONTAINS, 0)));
+    }
+
+    private List<String> ids(int[] rows) {
+        return Arrays.stream(rows).mapToObj(columns::id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeRows;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+import com.example.rqchallenge.service.EmployeeField;
+import com.example.rqchallenge.service.NameMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeSnapshotTest {
+
+    private EmployeeSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = EmployeeSnapshot.of(1, 0, Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("2", "Garrett Winters", 170750, "63", ""),
+                new Employee("3", "Ashton Cox", 86000, "66", ""),
+                new Employee("4", "Cedric Kelly", 170750, "22", "")));
+    }
+
+    @Test
+    void testSalaryQueriesKeepUpstreamOrderOnTies() {
+        assertEquals(320800, snapshot.highestSalary());
+        assertEquals(Arrays.asList("1", "2", "4"), ids(snapshot.topEarners(3)));
+        assertEquals(Arrays.asList("3", "4"), ids(snapshot.page(EmployeeField.SALARY, false, 0, 2).getData()));
+    }
+
+    @Test
+    void testPageRowsReadTheColumnsInPageOrder() {
+        EmployeeRows rows = snapshot.page(EmployeeField.SALARY, true, 1, 2).getRows();
+
+        assertEquals(2, rows.size());
+        assertEquals("2", rows.id(0));
+        assertEquals("Cedric Kelly", rows.name(1));
+        assertEquals(170750, rows.salary(1));
+        assertEquals("22", rows.age(1));
+        assertEquals("", rows.profileImage(0));
+    }
+
+    @Test
+    void testUpdateKeepsPositionAndReindexes() {
+        EmployeeSnapshot updated = snapshot.apply(
+                EmployeeDelta.updated(new Employee("2", "Garrett Summers", 500000, "64", "")), 2);
+
+        assertEquals(Arrays.asList("1", "2", "3", "4"), ids(updated.getEmployees()));
+        assertEquals(500000, updated.highestSalary());
+        assertEquals("Garrett Summers", updated.findById("2").getEmployeeName());
+        assertTrue(updated.searchByName("winters", NameMatch.CONTAINS, 0).isEmpty());
+        assertEquals(Arrays.asList("2"), ids(updated.searchByName("summers", NameMatch.CONTAINS, 0)));
+        assertEquals("Garrett Winters", snapshot.findById("2").getEmployeeName());
+    }
+
+    @Test
+    void testCreateAndDelete() {
+        EmployeeSnapshot updated = snapshot
+                .apply(EmployeeDelta.created(new Employee("5", "Airi Satou", 162700, "33", "")), 2)
+                .apply(EmployeeDelta.deleted("1"), 3);
+
+        assertEquals(Arrays.asList("2", "3", "4", "5"), ids(updated.getEmployees()));
+        assertNull(updated.findById("1"));
+        assertEquals(170750, updated.highestSalary());
+        assertEquals(Arrays.asList("3", "5"), ids(updated.page(EmployeeField.SALARY, false, 0, 2).getData()));
+        assertEquals(Arrays.asList("5", "4"), ids(updated.page(null, true, 0, 2).getData()));
+        assertEquals(4, snapshot.size());
+    }
+
+    @Test
+    void testBatchMatchesApplyingOneByOne() {
+        List<EmployeeDelta> deltas = Arrays.asList(
+                EmployeeDelta.created(new Employee("5", "Airi Satou", 170750, "33", "")),
+                EmployeeDelta.updated(new Employee("2", "Garrett Summers", 500000, "64", "")),
+                EmployeeDelta.deleted("1"),
+                EmployeeDelta.created(new Employee("6", "Brielle Williamson", 372000, "61", "")),
+                EmployeeDelta.deleted("6"),
+                EmployeeDelta.deleted("3"),
+                EmployeeDelta.created(new Employee("3", "Ashton Cox", 86000, "66", "")),
+                EmployeeDelta.updated(new Employee("5", "Airi Satou", 162700, "33", "")));
+        EmployeeSnapshot oneByOne = snapshot;
+        for (EmployeeDelta delta : deltas) {
+            oneByOne = oneByOne.apply(delta, oneByOne.getVersion() + 1);
+        }
+
+        EmployeeSnapshot batched = snapshot.apply(deltas, 2);
+
+        assertEquals(Arrays.asList("2", "4", "5", "3"), ids(batched.getEmployees()));
+        assertEquals(ids(oneByOne.getEmployees()), ids(batched.getEmployees()));
+        assertEquals(ids(oneByOne.topEarners(10)), ids(batched.topEarners(10)));
+        assertEquals(ids(oneByOne.page(EmployeeField.NAME, false, 0, 10).getData()),
+                ids(batched.page(EmployeeField.NAME, false, 0, 10).getData()));
+        assertNull(batched.findById("1"));
+        assertNull(batched.findById("6"));
+        assertEquals(162700, batched.findById("5").getEmployeeSalary());
+        assertEquals(Arrays.asList("5"), ids(batched.searchByName("satou", NameMatch.CONTAINS, 0)));
+        assertTrue(batched.searchByName("williamson", NameMatch.CONTAINS, 0).isEmpty());
+        assertEquals(oneByOne.salaryAnalytics().getSum(), batched.salaryAnalytics().getSum());
+        assertEquals(4, snapshot.size());
+    }
+
+    @Test
+    void testSalaryAnalyticsFollowWrites() {
+        EmployeeSnapshot updated = snapshot
+                .apply(EmployeeDelta.updated(new Employee("3", "Ashton Cox", 900000, "66", "")), 2)
+                .apply(EmployeeDelta.deleted("1"), 3);
+
+        SalaryAnalytics analytics = updated.salaryAnalytics();
+
+        assertEquals(3, analytics.getCount());
+        assertEquals(170750, analytics.getMin());
+        assertEquals(900000, analytics.getMax());
+        assertEquals(170750L + 900000 + 170750, analytics.getSum());
+        assertEquals(170750, analytics.getPercentiles().get("p50"));
+        assertEquals(4, snapshot.salaryAnalytics().getCount());
+    }
+
+    @Test
+    void testChangesSinceDiffsById() {
+        EmployeeSnapshot fresh = EmployeeSnapshot.of(2, 0, Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("2", "Garrett Winters", 175000, "63", ""),
+                new Employee("4", "Cedric Kelly", 170750, "22", ""),
+                new Employee("5", "Airi Satou", 162700, "33", "")));
+
+        List<EmployeeDelta> changes = fresh.changesSince(snapshot);
+
+        assertEquals(3, changes.size());
+        assertEquals(EmployeeDelta.Type.DELETED, changes.get(0).getType());
+        assertEquals("3", changes.get(0).getId());
+        assertEquals(EmployeeDelta.Type.UPDATED, changes.get(1).getType());
+        assertEquals(175000, changes.get(1).getEmployee().getEmployeeSalary());
+        assertEquals(EmployeeDelta.Type.CREATED, changes.get(2).getType());
+        assertEquals("5", changes.get(2).getId());
+        assertTrue(snapshot.changesSince(snapshot).isEmpty());
+    }
+
+    @Test
+    void testReadsReturnCopies() {
+        snapshot.findById("1").setEmployeeName("Changed");
+
+        assertEquals("Tiger Nixon", snapshot.findById("1").getEmployeeName());
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.service.NameMatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotFileStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        SnapshotFileStore store = new SnapshotFileStore(directory.resolve("nested/employees.bin"));
+        EmployeeSnapshot written = EmployeeSnapshot.of(7, 1_700_000_000_000L, Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("2", "Zo\u00eb \u00c5ngstr\u00f6m", 170750, null, null)
+        ));
+
+        store.write(written);
+        EmployeeSnapshot read = store.read();
+
+        assertEquals(7, read.getVersion());
+        assertEquals(1_700_000_000_000L, read.getFetchedAtMillis());
+        assertTrue(read.isRestored());
+        assertEquals(2, read.size());
+        Employee restored = read.findById("2");
+        assertEquals("Zo\u00eb \u00c5ngstr\u00f6m", restored.getEmployeeName());
+        assertEquals(170750, restored.getEmployeeSalary());
+        assertNull(restored.getEmployeeAge());
+        assertEquals("", read.findById("1").getProfileImage());
+        assertEquals(320800, read.highestSalary());
+        assertEquals("2", read.searchByName("\u00e5ngstr\u00f6m", NameMatch.CONTAINS, 0).get(0).getId());
+    }
+
+    @Test
+    void testMissingFileReadsAsNull() throws IOException {
+        assertNull(new SnapshotFileStore(directory.resolve("absent.bin")).read());
+    }
+
+    @Test
+    void testCorruptPayloadIsRejected() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        SnapshotFileStore store = new SnapshotFileStore(file);
+        store.write(EmployeeSnapshot.of(1, 0, Arrays.asList(new Employee("1", "Tiger Nixon", 320800, "61", ""))));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long last = Files.size(file) - 1;
+            raf.seek(last);
+            int value = raf.read();
+            raf.seek(last);
+            raf.write(value ^ 0xFF);
+        }
+
+        assertThrows(IOException.class, store::read);
+    }
+
+    @Test
+    void testTruncatedFileIsRejected() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        SnapshotFileStore store = new SnapshotFileStore(file);
+        store.write(EmployeeSnapshot.of(1, 0, Arrays.asList(new Employee("1", "Tiger Nixon", 320800, "61", ""))));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 4);
+        }
+
+        assertThrows(IOException.class, store::read);
+    }
+
+    @Test
+    void testCountBeyondWhatThePayloadHoldsIsRejected() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        SnapshotFileStore store = new SnapshotFileStore(file);
+        store.write(EmployeeSnapshot.of(1, 0, Arrays.asList(new Employee("1", "Tiger Nixon", 320800, "61", ""))));
+
+        writeCount(file, Integer.MAX_VALUE);
+
+        assertThrows(IOException.class, store::read);
+    }
+
+    @Test
+    void testBytesPastTheLastRecordAreRejected() throws IOException {
+        Path file = directory.resolve("employees.bin");
+        SnapshotFileStore store = new SnapshotFileStore(file);
+        store.write(EmployeeSnapshot.of(1, 0, Arrays.asList(
+                new Employee("1", "Tiger Nixon", 320800, "61", ""),
+                new Employee("2", "Garrett Winters", 170750, "63", ""))));
+
+        writeCount(file, 1);
+
+        assertThrows(IOException.class, store::read);
+    }
+
+    // The count sits in the header, outside the payload checksum.
+    private static void writeCount(Path file, int count) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(24);
+            raf.writeInt(count);
+        }
+    }
+}
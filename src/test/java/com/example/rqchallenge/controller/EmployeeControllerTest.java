@@ -1,8 +1,15 @@
 package com.example.rqchallenge.controller;
 
 import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
+import com.example.rqchallenge.entity.EmployeeWriteResult;
 import com.example.rqchallenge.entity.EmployeeByIdResponse;
+import com.example.rqchallenge.entity.EmployeePage;
+import com.example.rqchallenge.execution.RequestExecutor;
+import com.example.rqchallenge.service.EmployeeField;
 import com.example.rqchallenge.service.EmployeeService;
+import com.example.rqchallenge.service.NameMatch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -12,11 +19,21 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class EmployeeControllerTest {
@@ -32,6 +49,8 @@ class EmployeeControllerTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        employeeController.requestExecutor =
+                new RequestExecutor(Executors.newSingleThreadExecutor(), Duration.ofSeconds(5));
         age = "30";
     }
 
@@ -43,12 +62,38 @@ class EmployeeControllerTest {
         );
         when(employeeService.getAllEmployees()).thenReturn(mockEmployees);
 
-        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees();
+        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees().join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mockEmployees, response.getBody());
     }
 
+    @Test
+    void testGetEmployeesPage_ProjectsRequestedFields() {
+        List<Employee> page = Arrays.asList(
+                new Employee("2", "Jane Smith", 1200, age, "jane.png"),
+                new Employee("1", "John Doe", 1000, age, "john.png")
+        );
+        when(employeeService.getEmployeesPage(EmployeeField.SALARY, true, 0, 2)).thenReturn(new EmployeePage(page, 5));
+
+        ResponseEntity<byte[]> response = employeeController.getEmployeesPage(0, 2, "salary,desc",
+                Arrays.asList("employee_name", "salary")).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(EmployeeController.TOTAL_COUNT_HEADER));
+        assertEquals("[{\"employee_name\":\"Jane Smith\",\"employee_salary\":1200},"
+                        + "{\"employee_name\":\"John Doe\",\"employee_salary\":1000}]",
+                new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGetEmployeesPage_InvalidFieldOrSize() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                employeeController.getEmployeesPage(0, 20, null, Arrays.asList("salary", "ssn")).join().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                employeeController.getEmployeesPage(0, EmployeeController.MAX_PAGE_SIZE + 1, null, null).join().getStatusCode());
+    }
+
    @Test
     void testGetEmployeesByNameSearch_Success() {
         String name = "John Doe";
@@ -58,12 +103,41 @@ class EmployeeControllerTest {
         );
         when(employeeService.getEmployeesByNameSearch(name)).thenReturn(mockEmployees);
 
-        ResponseEntity<List<Employee>> response = employeeController.getEmployeesByNameSearch(name);
+        ResponseEntity<List<Employee>> response = employeeController.getEmployeesByNameSearch(name).join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mockEmployees, response.getBody());
     }
 
+    @Test
+    void testSearchEmployeesByName_Success() {
+        List<Employee> mockEmployees = Arrays.asList(
+                new Employee("1", "John Doe", 1000, age, "")
+        );
+        when(employeeService.searchEmployeesByName("doe", NameMatch.CONTAINS, 5)).thenReturn(mockEmployees);
+
+        ResponseEntity<List<Employee>> response = employeeController.searchEmployeesByName("doe", "contains", 5).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(mockEmployees, response.getBody());
+    }
+
+    @Test
+    void testSearchEmployeesByName_InvalidMatch() {
+        ResponseEntity<List<Employee>> response = employeeController.searchEmployeesByName("doe", "fuzzy", null).join();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testSearchEmployeesByName_InvalidLimit() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                employeeController.searchEmployeesByName("doe", "contains", 0).join().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                employeeController.searchEmployeesByName("doe", "contains", -1).join().getStatusCode());
+        verify(employeeService, never()).searchEmployeesByName(anyString(), any(), anyInt());
+    }
+
     @Test
     void testGetEmployeeById_Success() {
         String id = "1";
@@ -72,18 +146,32 @@ class EmployeeControllerTest {
         mockResponse.setData(employee);
         when(employeeService.getEmployeeById(id)).thenReturn(mockResponse);
 
-        ResponseEntity<Employee> response = employeeController.getEmployeeById(id);
+        ResponseEntity<Employee> response = employeeController.getEmployeeById(id).join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mockResponse.getData(), response.getBody());
     }
 
+    @Test
+    void testGetEmployeesByIds_Success() {
+        List<String> ids = Arrays.asList("1", "2");
+        EmployeeBatchResponse batch = new EmployeeBatchResponse();
+        batch.getData().add(new Employee("1", "John", 1100, age, ""));
+        batch.getErrors().put("2", "404 NOT_FOUND");
+        when(employeeService.getEmployeesByIds(ids)).thenReturn(batch);
+
+        ResponseEntity<EmployeeBatchResponse> response = employeeController.getEmployeesByIds(ids).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(batch, response.getBody());
+    }
+
     @Test
     void testGetHighestSalaryOfEmployees_Success() {
         int highestSalary = 2000;
         when(employeeService.getHighestSalaryOfEmployees()).thenReturn(highestSalary);
 
-        ResponseEntity<Integer> response = employeeController.getHighestSalaryOfEmployees();
+        ResponseEntity<Integer> response = employeeController.getHighestSalaryOfEmployees().join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(highestSalary, response.getBody());
@@ -99,7 +187,7 @@ class EmployeeControllerTest {
         List<String> mockEmployeesNames = Arrays.asList("John Doe", "Jane Smith");
         when(employeeService.getTopHighestEarningEmployees(10)).thenReturn(mockEmployees);
 
-        ResponseEntity<List<String>> response = employeeController.getTopTenHighestEarningEmployeeNames();
+        ResponseEntity<List<String>> response = employeeController.getTopTenHighestEarningEmployeeNames().join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mockEmployeesNames, response.getBody());
@@ -113,16 +201,29 @@ class EmployeeControllerTest {
         employeeByIdResponse.setData(newEmployee);
         when(employeeService.createEmployee(newEmployee)).thenReturn(employeeByIdResponse);
 
-        ResponseEntity<Employee> response = employeeController.createEmployee(newEmployee);
+        ResponseEntity<Employee> response = employeeController.createEmployee(newEmployee).join();
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(newEmployee, response.getBody());
     }
 
+    @Test
+    void testCreateEmployees_Success() {
+        List<Employee> employees = Arrays.asList(new Employee(null, "John Doe", 1000, age, ""));
+        EmployeeBatchWriteResponse batch = new EmployeeBatchWriteResponse();
+        batch.add(new EmployeeWriteResult(0, "7", true, new Employee("7", "John Doe", 1000, age, ""), null));
+        when(employeeService.createEmployees(employees)).thenReturn(batch);
+
+        ResponseEntity<EmployeeBatchWriteResponse> response = await(employeeController.createEmployees(employees));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getSucceeded());
+    }
+
     @Test
     void testDeleteEmployee_Success() {
         String id = "1";
-        ResponseEntity<String> response = employeeController.deleteEmployeeById(id);
+        ResponseEntity<String> response = employeeController.deleteEmployeeById(id).join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Employee with id "+ id+" got deleted successfully", response.getBody());
@@ -132,7 +233,7 @@ class EmployeeControllerTest {
      void testDeleteEmployee_Exception(){
         String id = "2";
         Mockito.doThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, "Employee Not Found")).when(employeeService).deleteEmployee(id);
-        ResponseEntity<String> response = employeeController.deleteEmployeeById(id);
+        ResponseEntity<String> response = employeeController.deleteEmployeeById(id).join();
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -140,7 +241,7 @@ class EmployeeControllerTest {
     @Test
     void testGetAllEmployees_Exception() {
         Mockito.doThrow(new RuntimeException("Internal server error")).when(employeeService).getAllEmployees();
-        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees();
+        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees().join();
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
@@ -148,7 +249,7 @@ class EmployeeControllerTest {
     void testGetEmployeesByNameSearch_Exception() {
         String name = "John Doe";
         Mockito.doThrow(new RuntimeException("Internal server error")).when(employeeService).getEmployeesByNameSearch(name);
-        ResponseEntity<List<Employee>> response = employeeController.getEmployeesByNameSearch(name);
+        ResponseEntity<List<Employee>> response = employeeController.getEmployeesByNameSearch(name).join();
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
@@ -156,21 +257,21 @@ class EmployeeControllerTest {
     void testGetEmployeeById_Exception() {
         String id = "1";
         Mockito.doThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, "Employee not found")).when(employeeService).getEmployeeById(id);
-        ResponseEntity<Employee> response = employeeController.getEmployeeById(id);
+        ResponseEntity<Employee> response = employeeController.getEmployeeById(id).join();
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     void testGetHighestSalaryOfEmployees_Exception() {
         Mockito.doThrow(new RuntimeException("Internal server error")).when(employeeService).getHighestSalaryOfEmployees();
-        ResponseEntity<Integer> response = employeeController.getHighestSalaryOfEmployees();
+        ResponseEntity<Integer> response = employeeController.getHighestSalaryOfEmployees().join();
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
     @Test
     void testgetTopTenHighestEarningEmployeeNames_Exception() {
         Mockito.doThrow(new RuntimeException("Internal server error")).when(employeeService).getTopHighestEarningEmployees(10);
-        ResponseEntity<List<String>> response = employeeController.getTopTenHighestEarningEmployeeNames();
+        ResponseEntity<List<String>> response = employeeController.getTopTenHighestEarningEmployeeNames().join();
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
@@ -178,7 +279,14 @@ class EmployeeControllerTest {
     void testCreateEmployee_Exception() {
         Employee employee = new Employee();
         Mockito.doThrow(new RuntimeException("Internal server error")).when(employeeService).createEmployee(employee);
-        ResponseEntity<Employee> response = employeeController.createEmployee(employee);
+        ResponseEntity<Employee> response = employeeController.createEmployee(employee).join();
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(DeferredResult<T> deferred) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        deferred.setResultHandler(result::complete);
+        return (T) result.join();
+    }
 }
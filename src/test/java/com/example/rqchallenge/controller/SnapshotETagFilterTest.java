@@ -0,0 +1,209 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.cache.CachingEmployeeService;
+import com.example.rqchallenge.cache.EmployeeCacheProperties;
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.service.EmployeeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotETagFilterTest {
+
+    private static final String BODY = "[{\"id\":\"1\",\"employee_name\":\"Tiger Nixon\"}]";
+
+    private CachingEmployeeService cachingService;
+    private SnapshotETagFilter filter;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        cachingService = mock(CachingEmployeeService.class);
+        when(cachingService.getSnapshotVersion()).thenReturn(3L);
+        when(cachingService.isSnapshotFresh()).thenReturn(true);
+        filter = new SnapshotETagFilter(cachingService);
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void testMatchingIfNoneMatchIsAnsweredWithoutRendering() throws Exception {
+        MockHttpServletResponse first = get(null, null);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals(BODY, first.getContentAsString());
+
+        MockHttpServletResponse second = get(etag, null);
+
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentLength());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, second.getHeader(HttpHeaders.VARY));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testNoETagBeforeTheFirstSnapshotIsLoaded() throws Exception {
+        when(cachingService.getSnapshotVersion()).thenReturn(-1L);
+
+        MockHttpServletResponse response = get("*", null);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals(BODY, response.getContentAsString());
+        verify(cachingService, never()).currentSnapshot();
+    }
+
+    @Test
+    void testRepeatedReadsAreServedFromCachedBytesAndGzipped() throws Exception {
+        get(null, null);
+
+        MockHttpServletResponse gzipped = get(null, "gzip, deflate");
+
+        assertEquals(200, gzipped.getStatus());
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzipped.getHeader(HttpHeaders.VARY));
+        assertEquals(BODY, gunzip(gzipped.getContentAsByteArray()));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testNewSnapshotVersionChangesTheETag() throws Exception {
+        String etag = get(null, null).getHeader(HttpHeaders.ETAG);
+        when(cachingService.getSnapshotVersion()).thenReturn(4L);
+
+        MockHttpServletResponse response = get(etag, null);
+
+        assertEquals(200, response.getStatus());
+        assertFalse(etag.equals(response.getHeader(HttpHeaders.ETAG)));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testStaleSnapshotIsRenderedRatherThanAnsweredFromTheFilter() throws Exception {
+        String etag = get(null, null).getHeader(HttpHeaders.ETAG);
+        when(cachingService.isSnapshotFresh()).thenReturn(false);
+
+        assertEquals(200, get(etag, null).getStatus());
+        assertEquals(200, get(null, null).getStatus());
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void testConditionalPollsAloneMoveTheVersionOnOnceTheTtlExpires() throws Exception {
+        EmployeeServiceImpl upstream = mock(EmployeeServiceImpl.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Employee>>getArgument(0).accept(new Employee("1", "Tiger Nixon", 320800, "61", ""));
+            return null;
+        }).when(upstream).forEachEmployee(any());
+        EmployeeCacheProperties properties = new EmployeeCacheProperties();
+        properties.setTtl(Duration.ofMillis(100));
+        properties.setMaxStaleness(Duration.ofMinutes(5));
+        CachingEmployeeService service = new CachingEmployeeService(upstream, properties, Clock.systemUTC(),
+                new SimpleMeterRegistry(), null);
+        filter = new SnapshotETagFilter(service);
+        try {
+            service.getAllEmployees();
+            String etag = poll(service, null).getHeader(HttpHeaders.ETAG);
+            assertEquals(304, poll(service, etag).getStatus());
+
+            Thread.sleep(150);
+            long deadline = System.currentTimeMillis() + 5000;
+            MockHttpServletResponse response = poll(service, etag);
+            while (response.getStatus() != 304 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                response = poll(service, response.getHeader(HttpHeaders.ETAG));
+            }
+
+            assertEquals(304, response.getStatus());
+            assertFalse(etag.equals(response.getHeader(HttpHeaders.ETAG)));
+            verify(upstream, atLeast(2)).forEachEmployee(any());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testIfNoneMatchParsing() {
+        assertTrue(SnapshotETagFilter.matches("\"a\", W/\"b-3\"", "\"b-3\""));
+        assertTrue(SnapshotETagFilter.matches("*", "\"b-3\""));
+        assertFalse(SnapshotETagFilter.matches("\"b-2\"", "\"b-3\""));
+    }
+
+    private MockHttpServletResponse get(String ifNoneMatch, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                renders.incrementAndGet();
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+    // A poll whose handler reads through the caching service, as the controller does.
+    private MockHttpServletResponse poll(CachingEmployeeService service, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(
+                        service.getAllEmployees().get(0).getEmployeeName().getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[1024];
+            StringBuilder out = new StringBuilder();
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.rqchallenge.execution;
+
+import com.example.rqchallenge.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private static final HandlerMethod CACHED_READ = handler("cachedRead");
+    private static final HandlerMethod UPSTREAM_READ = handler("upstreamRead");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+
+    @Test
+    void testRequestsOverTheLimitAreShedAndCachedReadsKeepTheReservedShare() {
+        when(employeeService.isReadCached()).thenReturn(true);
+        ConcurrencyLimitInterceptor interceptor = interceptor(4);
+
+        // Writes may only use half of the limit of 4.
+        assertTrue(preHandle(interceptor, request("POST"), new MockHttpServletResponse()));
+        assertTrue(preHandle(interceptor, request("POST"), new MockHttpServletResponse()));
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertFalse(preHandle(interceptor, request("POST"), shed));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), shed.getStatus());
+        assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+
+        // A different endpoint has its own limit, and cached reads may use all of it.
+        for (int i = 0; i < 4; i++) {
+            assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), CACHED_READ));
+        }
+        assertFalse(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), CACHED_READ));
+
+        assertEquals(1, registry.get("employee.concurrency.rejected").tag("endpoint", "POST /employees")
+                .tag("priority", "false").counter().count());
+        assertEquals(4, registry.get("employee.concurrency.in.flight").tag("endpoint", "GET /employees")
+                .gauge().value());
+    }
+
+    @Test
+    void testReadsThatMayGoUpstreamDoNotGetTheReservedShare() {
+        when(employeeService.isReadCached()).thenReturn(true);
+        ConcurrencyLimitInterceptor interceptor = interceptor(4);
+
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), UPSTREAM_READ));
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), UPSTREAM_READ));
+        assertFalse(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), UPSTREAM_READ));
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), CACHED_READ));
+
+        // Without the cache nothing is answered locally, so cached-read handlers get no priority either.
+        when(employeeService.isReadCached()).thenReturn(false);
+        assertFalse(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), CACHED_READ));
+    }
+
+    @Test
+    void testPermitIsHeldAcrossTheAsyncDispatchAndReleasedOnce() {
+        ConcurrencyLimitInterceptor interceptor = interceptor(1);
+        MockHttpServletRequest request = request("GET");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(preHandle(interceptor, request, response));
+        request.setAsyncStarted(true);
+        interceptor.afterCompletion(request, response, null, null);
+        assertFalse(preHandle(interceptor, request("GET"), new MockHttpServletResponse()));
+
+        // The async dispatch passes through without taking a second permit, then gives the first one back.
+        request.setAsyncStarted(false);
+        assertTrue(preHandle(interceptor, request, response));
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0, registry.get("employee.concurrency.in.flight").gauge().value());
+        assertTrue(preHandle(interceptor, request("GET"), new MockHttpServletResponse()));
+    }
+
+    @Test
+    void testTimeoutsAndRisingLatencyShrinkTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 2, 200, 2.0, 0.9, 0);
+        limit.tryAcquire(false);
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertEquals(90, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire(false);
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+        // Mostly idle, so steady latency does not grow it.
+        assertEquals(90, limit.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire(false);
+            limit.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        }
+        assertTrue(limit.getLimit() < 30, "limit was " + limit.getLimit());
+    }
+
+    @Test
+    void testBusyEndpointWithSteadyLatencyGrowsItsLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 200, 2.0, 0.9, 0);
+        saturate(limit);
+        for (int i = 0; i < 50; i++) {
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+            saturate(limit);
+        }
+
+        assertTrue(limit.getLimit() > 20, "limit was " + limit.getLimit());
+    }
+
+    // Every request that finishes is replaced by as many new ones as the limit allows.
+    private static void saturate(AdaptiveConcurrencyLimit limit) {
+        int acquired = 0;
+        while (limit.tryAcquire(false)) {
+            acquired++;
+        }
+        assertTrue(acquired <= 200);
+    }
+
+    private ConcurrencyLimitInterceptor interceptor(int limit) {
+        ExecutionProperties.ConcurrencyLimit properties = new ExecutionProperties.ConcurrencyLimit();
+        properties.setInitialLimit(limit);
+        properties.setMinLimit(1);
+        properties.setReservedForCachedReads(0.5);
+        return new ConcurrencyLimitInterceptor(properties, employeeService, registry);
+    }
+
+    private static boolean preHandle(ConcurrencyLimitInterceptor interceptor, MockHttpServletRequest request,
+                                     MockHttpServletResponse response) {
+        return interceptor.preHandle(request, response, null);
+    }
+
+    private static HandlerMethod handler(String name) {
+        try {
+            return new HandlerMethod(new Handlers(), name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/employees");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/employees");
+        return request;
+    }
+
+    static class Handlers {
+
+        @CachedRead
+        public void cachedRead() {
+        }
+
+        public void upstreamRead() {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.rqchallenge.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ThreadPoolExecutor pool =
+            new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    private final RequestExecutor executor = new RequestExecutor(pool, Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testInlineHandlersRunOnTheCallingThread() {
+        Thread caller = Thread.currentThread();
+
+        ResponseEntity<Boolean> response =
+                executor.submit(true, () -> ResponseEntity.ok(Thread.currentThread() == caller)).join();
+
+        assertTrue(response.getBody());
+    }
+
+    @Test
+    void testHandlerPastItsDeadlineGetsGatewayTimeoutAndIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        ResponseEntity<String> response = executor.<String>submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return ResponseEntity.ok("late");
+        }).join();
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSaturatedPoolIsAnsweredWithServiceUnavailable() {
+        executor.submit(this::blocked);
+        executor.submit(this::blocked);
+
+        ResponseEntity<String> rejected = executor.submit(this::blocked).join();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testBoundedExecutorShedsOverItsLimitUntilAHandlerFinishes() {
+        RequestExecutor bounded = new RequestExecutor(Executors.newCachedThreadPool(), 1, Duration.ofSeconds(5));
+        try {
+            CompletableFuture<ResponseEntity<String>> first = bounded.submit(this::blocked);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, bounded.submit(this::blocked).join().getStatusCode());
+            release.countDown();
+            assertEquals("done", first.join().getBody());
+            assertEquals(HttpStatus.OK, bounded.submit(() -> ResponseEntity.ok("again")).join().getStatusCode());
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    private ResponseEntity<String> blocked() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResponseEntity.ok("done");
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.rqchallenge.service;
 
 import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.EmployeeBatchResponse;
+import com.example.rqchallenge.entity.EmployeeBatchWriteResponse;
 import com.example.rqchallenge.entity.EmployeeByIdResponse;
 import com.example.rqchallenge.entity.EmployeeResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -84,6 +91,55 @@ class EmployeeServiceImplTest {
         assertEquals(employee, result.getData());
     }
 
+    @Test
+    void testGetEmployeesByIdsReturnsPartialResults() {
+        EmployeeByIdResponse found = new EmployeeByIdResponse();
+        Employee employee = new Employee("1", "Tiger Nixon", 320800, age, "");
+        found.setData(employee);
+        when(restTemplate.getForObject(endsWith("/employee/1"), eq(EmployeeByIdResponse.class))).thenReturn(found);
+        when(restTemplate.getForObject(endsWith("/employee/2"), eq(EmployeeByIdResponse.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        EmployeeBatchResponse result = employeeService.getEmployeesByIds(Arrays.asList("1", "2", "1"));
+
+        assertEquals(Arrays.asList(employee), result.getData());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("404 NOT_FOUND", result.getErrors().get("2"));
+        verify(restTemplate, times(1)).getForObject(endsWith("/employee/1"), eq(EmployeeByIdResponse.class));
+    }
+
+    @Test
+    void testKeyedBatchUsesTheRequestedIdsAsKeys() {
+        EmployeeByIdResponse found = new EmployeeByIdResponse();
+        found.setData(new Employee("7", "Ashton Cox", 86000, "66", ""));
+        when(restTemplate.getForObject(endsWith("/employee/007"), eq(EmployeeByIdResponse.class))).thenReturn(found);
+        when(restTemplate.getForObject(endsWith("/employee/9"), eq(EmployeeByIdResponse.class))).thenReturn(null);
+        Map<String, String> errors = new HashMap<>();
+
+        Map<String, Employee> result = employeeService.getEmployeesKeyedByIds(Arrays.asList("9", "007"), errors);
+
+        assertEquals(Collections.singleton("007"), result.keySet());
+        assertEquals("7", result.get("007").getId());
+        assertEquals(Collections.singletonMap("9", "Employee not found"), errors);
+    }
+
+    @Test
+    void testInterruptedBatchReadStopsFetchingAndReportsTheRest() {
+        Map<String, String> errors = new HashMap<>();
+        Thread.currentThread().interrupt();
+        Map<String, Employee> result;
+        try {
+            result = employeeService.getEmployeesKeyedByIds(Arrays.asList("1", "2"), errors);
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(Collections.emptyMap(), result);
+        assertEquals("Not fetched: request interrupted", errors.get("1"));
+        assertEquals("Not fetched: request interrupted", errors.get("2"));
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
     @Test
     void testGetHighestSalaryOfEmployees() {
         EmployeeResponse mockResponse = new EmployeeResponse();
@@ -150,6 +206,37 @@ class EmployeeServiceImplTest {
         assertEquals(mockResponse,result);;
     }
 
+    @Test
+    void testDeleteEmployeesReportsEachItem() {
+        doThrow(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS))
+                .when(restTemplate).delete(endsWith("/delete/2"));
+
+        EmployeeBatchWriteResponse result = employeeService.deleteEmployees(Arrays.asList("1", "2", "3"));
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals("2", result.getResults().get(1).getId());
+        assertEquals("429 TOO_MANY_REQUESTS", result.getResults().get(1).getError());
+        verify(restTemplate, times(3)).delete(anyString());
+    }
+
+    @Test
+    void testInterruptedBulkDeleteStopsSendingAndReportsTheRest() {
+        Thread.currentThread().interrupt();
+        EmployeeBatchWriteResponse result;
+        try {
+            result = employeeService.deleteEmployees(Arrays.asList("1", "2"));
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals("2", result.getResults().get(1).getId());
+        assertEquals("Not attempted: request interrupted", result.getResults().get(1).getError());
+        verify(restTemplate, never()).delete(anyString());
+    }
+
     @Test
     void testDeleteEmployee() {
 
@@ -0,0 +1,77 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveEmployeeServiceImplTest {
+
+    private static final String EMPLOYEES = "{\"status\":\"success\",\"data\":["
+            + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"},"
+            + "{\"id\":2,\"employee_name\":\"Garrett Winters\",\"employee_salary\":170750,\"employee_age\":63,\"profile_image\":\"\"},"
+            + "{\"id\":3,\"employee_name\":\"Ashton Cox\",\"employee_salary\":86000,\"employee_age\":66,\"profile_image\":\"\"}"
+            + "]}";
+
+    private ReactiveEmployeeServiceImpl employeeService;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    if (request.url().getPath().endsWith("/employees")) {
+                        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(EMPLOYEES)
+                                .build());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build());
+                })
+                .build();
+        employeeService = new ReactiveEmployeeServiceImpl(webClient);
+    }
+
+    @Test
+    void testGetHighestSalaryOfEmployees() {
+        assertEquals(320800, employeeService.getHighestSalaryOfEmployees().block());
+    }
+
+    @Test
+    void testGetTopHighestEarningEmployees() {
+        List<String> names = employeeService.getTopHighestEarningEmployees(2)
+                .map(Employee::getEmployeeName)
+                .collectList()
+                .block();
+
+        assertEquals(2, names.size());
+        assertEquals("Tiger Nixon", names.get(0));
+        assertEquals("Garrett Winters", names.get(1));
+    }
+
+    @Test
+    void testSearchEmployeesByName() {
+        List<String> ids = employeeService.searchEmployeesByName("o", NameMatch.CONTAINS, 0)
+                .map(Employee::getId)
+                .collect(Collectors.toList())
+                .block();
+
+        assertEquals(2, ids.size());
+    }
+
+    @Test
+    void testUpstreamErrorIsPropagated() {
+        assertThrows(WebClientResponseException.class, () -> employeeService.getEmployeeById("1").block());
+    }
+}
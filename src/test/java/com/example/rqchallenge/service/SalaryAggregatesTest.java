@@ -0,0 +1,74 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import com.example.rqchallenge.entity.SalaryAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SalaryAggregatesTest {
+
+    @Test
+    void testSummaryPercentilesAndBreakdowns() {
+        SalaryAggregates.Accumulator accumulator = new SalaryAggregates.Accumulator();
+        for (int i = 1; i <= 100; i++) {
+            accumulator.accept(new Employee(String.valueOf(i), "E" + i, i * 1000, i <= 50 ? "30" : "n/a", ""));
+        }
+
+        SalaryAnalytics analytics = accumulator.toAnalytics();
+
+        assertEquals(100, analytics.getCount());
+        assertEquals(1000, analytics.getMin());
+        assertEquals(100_000, analytics.getMax());
+        assertEquals(5_050_000, analytics.getSum());
+        assertEquals(50_500.0, analytics.getMean());
+        assertEquals(50_000, analytics.getPercentiles().get("p50"));
+        assertEquals(90_000, analytics.getPercentiles().get("p90"));
+        assertEquals(99_000, analytics.getPercentiles().get("p99"));
+        // [0, 25000) holds 1000..24000, [100000, 150000) holds only the top salary.
+        assertEquals(24, analytics.getHistogram().get(0).getCount());
+        assertEquals(1, analytics.getHistogram().get(4).getCount());
+        SalaryAnalytics.AgeBand thirties = analytics.getAgeBands().get(1);
+        assertEquals("25-34", thirties.getBand());
+        assertEquals(50, thirties.getCount());
+        assertEquals(50, analytics.getAgeBands().get(analytics.getAgeBands().size() - 1).getCount());
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchARebuild() {
+        SalaryAggregates aggregates = SalaryAggregates.of(new int[]{10_000, 60_000}, new int[]{22, 41}, 2)
+                .with(300_000, 70)
+                .without(10_000, 22);
+
+        SalaryAggregates rebuilt = SalaryAggregates.of(new int[]{60_000, 300_000}, new int[]{41, 70}, 2);
+        int[] sorted = {60_000, 300_000};
+        SalaryAnalytics incremental = aggregates.toAnalytics(rank -> sorted[rank]);
+        SalaryAnalytics expected = rebuilt.toAnalytics(rank -> sorted[rank]);
+
+        assertEquals(expected.getSum(), incremental.getSum());
+        assertEquals(expected.getCount(), incremental.getCount());
+        for (int i = 0; i < expected.getHistogram().size(); i++) {
+            assertEquals(expected.getHistogram().get(i).getCount(), incremental.getHistogram().get(i).getCount());
+        }
+        for (int i = 0; i < expected.getAgeBands().size(); i++) {
+            assertEquals(expected.getAgeBands().get(i).getSum(), incremental.getAgeBands().get(i).getSum());
+        }
+    }
+
+    @Test
+    void testEmptyHasNoOrderStatistics() {
+        SalaryAnalytics analytics = SalaryAggregates.empty().toAnalytics(rank -> {
+            throw new AssertionError("no ranks to read");
+        });
+
+        assertEquals(0, analytics.getCount());
+        assertNull(analytics.getMin());
+        assertNull(analytics.getMean());
+        assertEquals(0, analytics.getPercentiles().size());
+        assertEquals(Arrays.asList("<25", "25-34", "35-44", "45-54", "55-64", "65+", "unknown"),
+                Arrays.asList(analytics.getAgeBands().stream().map(SalaryAnalytics.AgeBand::getBand).toArray()));
+    }
+}
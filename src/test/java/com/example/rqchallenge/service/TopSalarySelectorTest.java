@@ -0,0 +1,48 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopSalarySelectorTest {
+
+    @Test
+    void testSelectReturnsHighestSalariesInDescendingOrder() {
+        List<Employee> employees = new ArrayList<>();
+        for (int salary = 1; salary <= 100; salary++) {
+            employees.add(new Employee(String.valueOf(salary), "Employee " + salary, salary, "30", ""));
+        }
+        Collections.shuffle(employees);
+
+        List<Employee> top = TopSalarySelector.select(employees, 3);
+
+        assertEquals(Arrays.asList(100, 99, 98), top.stream().map(Employee::getEmployeeSalary).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSelectWithFewerEmployeesThanK() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("1", "Tiger Nixon", 320800, "61", ""));
+
+        assertEquals(1, TopSalarySelector.select(employees, 10).size());
+        assertTrue(TopSalarySelector.select(employees, 0).isEmpty());
+    }
+
+    @Test
+    void testMaxSalary() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("1", "Tiger Nixon", 320800, "61", ""));
+        employees.add(new Employee("2", "Garrett Winters", 320809, "63", ""));
+
+        assertEquals(320809, TopSalarySelector.maxSalary(employees));
+        assertEquals(0, TopSalarySelector.maxSalary(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.rqchallenge.simulator;
+
+import com.example.rqchallenge.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamSimulatorControllerTest {
+
+    private UpstreamSimulatorProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamSimulatorProperties();
+        properties.setEmployees(5);
+        properties.setLatencyMedian(Duration.ZERO);
+    }
+
+    @Test
+    void testServesGeneratedDatasetInUpstreamEnvelope() {
+        UpstreamSimulatorController simulator = new UpstreamSimulatorController(properties);
+
+        ResponseEntity<?> response = (ResponseEntity<?>) simulator.getAllEmployees().getResult();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals("success", body.get("status"));
+        assertEquals(5, ((List<?>) body.get("data")).size());
+    }
+
+    @Test
+    void testCreatedEmployeeCanBeFetchedAndDeleted() {
+        UpstreamSimulatorController simulator = new UpstreamSimulatorController(properties);
+        simulator.createEmployee(new Employee(null, "Cedric Kelly", 433060, "22", ""));
+
+        ResponseEntity<?> found = (ResponseEntity<?>) simulator.getEmployeeById("6").getResult();
+        assertEquals("Cedric Kelly", ((Employee) ((Map<?, ?>) found.getBody()).get("data")).getEmployeeName());
+
+        simulator.deleteEmployee("6");
+        ResponseEntity<?> missing = (ResponseEntity<?>) simulator.getEmployeeById("6").getResult();
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+
+    @Test
+    void testThrottledCallsCarryRetryAfterAndHaveNoSideEffects() {
+        properties.setThrottleRate(1.0);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        UpstreamSimulatorController simulator = new UpstreamSimulatorController(properties);
+
+        ResponseEntity<?> response = (ResponseEntity<?>) simulator.deleteEmployee("1").getResult();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        properties.setThrottleRate(0);
+        assertEquals(HttpStatus.OK, ((ResponseEntity<?>) simulator.getEmployeeById("1").getResult()).getStatusCode());
+    }
+}
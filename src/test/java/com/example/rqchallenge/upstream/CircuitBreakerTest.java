@@ -0,0 +1,49 @@
+package com.example.rqchallenge.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1, TimeUnit.HOURS, 1);
+
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void testHalfOpenTrialClosesOnSuccess() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 10, TimeUnit.MILLISECONDS, 1);
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenTrialReopensOnFailure() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 10, TimeUnit.MILLISECONDS, 1);
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
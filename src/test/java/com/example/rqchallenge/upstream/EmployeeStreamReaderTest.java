@@ -0,0 +1,54 @@
+package com.example.rqchallenge.upstream;
+
+import com.example.rqchallenge.entity.Employee;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeStreamReaderTest {
+
+    private final EmployeeStreamReader reader = new EmployeeStreamReader(
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    @Test
+    void testReadsEmployeesOneAtATime() throws IOException {
+        String body = "{\"status\":\"success\",\"data\":["
+                + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"},"
+                + "null,"
+                + "{\"id\":2,\"employee_name\":\"Garrett Winters\",\"employee_salary\":170750,\"employee_age\":63,\"profile_image\":\"\",\"extra\":{\"a\":1}}"
+                + "],\"message\":\"Successfully! All records has been fetched.\"}";
+        List<Employee> employees = new ArrayList<>();
+
+        int count = reader.read(stream(body), employees::add);
+
+        assertEquals(2, count);
+        assertEquals("1", employees.get(0).getId());
+        assertEquals("Garrett Winters", employees.get(1).getEmployeeName());
+        assertEquals(170750, employees.get(1).getEmployeeSalary());
+    }
+
+    @Test
+    void testMissingDataYieldsNothing() throws IOException {
+        assertEquals(0, reader.read(stream("{\"status\":\"success\",\"data\":null}"), employee -> {
+        }));
+    }
+
+    @Test
+    void testTruncatedPayloadFails() {
+        assertThrows(IOException.class, () -> reader.read(stream("{\"data\":[{\"id\":1}"), employee -> {
+        }));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.rqchallenge.upstream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveResilienceFilterTest {
+
+    @Test
+    void testCallsBeyondTheBurstFailOnceTheAcquireTimeoutPasses() {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient webClient = webClient(new TokenBucket(0.001, 1), new CircuitBreaker(5, 1, TimeUnit.HOURS, 1),
+                Duration.ofMillis(50), HttpStatus.OK, calls);
+
+        webClient.get().uri("/employees").retrieve().toBodilessEntity().block();
+
+        assertThrows(UpstreamUnavailableException.class,
+                () -> webClient.get().uri("/employees").retrieve().toBodilessEntity().block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testCallsWaitForATokenWithoutFailing() {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient webClient = webClient(new TokenBucket(50, 1), new CircuitBreaker(5, 1, TimeUnit.HOURS, 1),
+                Duration.ofSeconds(1), HttpStatus.OK, calls);
+
+        for (int i = 0; i < 3; i++) {
+            webClient.get().uri("/employees").retrieve().toBodilessEntity().block();
+        }
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testThrottledResponsesOpenTheSharedBreaker() {
+        AtomicInteger calls = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker(2, 1, TimeUnit.HOURS, 1);
+        WebClient webClient = webClient(new TokenBucket(0, 1), breaker, Duration.ZERO,
+                HttpStatus.TOO_MANY_REQUESTS, calls);
+
+        for (int i = 0; i < 2; i++) {
+            webClient.get().uri("/employees").exchangeToMono(response -> response.releaseBody()).block();
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(UpstreamUnavailableException.class,
+                () -> webClient.get().uri("/employees").exchangeToMono(response -> response.releaseBody()).block());
+        assertEquals(2, calls.get());
+    }
+
+    private static WebClient webClient(TokenBucket rateLimiter, CircuitBreaker breaker, Duration acquireTimeout,
+                                       HttpStatus status, AtomicInteger calls) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status).build());
+                })
+                .filter(new ReactiveResilienceFilter(rateLimiter, breaker, acquireTimeout))
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResilienceInterceptorTest {
+
+    private static final String URL = "https://upstream.test/api/v1/employee/1";
+
+    private UpstreamResilienceProperties properties;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+    private ResilienceInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamResilienceProperties();
+        properties.getRateLimit().setPermitsPerSecond(0);
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getCircuitBreaker().setFailureThreshold(3);
+        interceptor = new ResilienceInterceptor(properties);
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(interceptor);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testRetriesThrottledCallHonouringRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(headers));
+        server.expect(requestTo(URL)).andRespond(withSuccess("ok", MediaType.TEXT_PLAIN));
+
+        assertEquals("ok", restTemplate.getForObject(URL, String.class));
+        server.verify();
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void testRetryGoesThroughTheBalancerToAnotherReplica() {
+        UpstreamBalancerProperties balancerProperties = new UpstreamBalancerProperties();
+        balancerProperties.setEndpoints(Arrays.asList("https://a.upstream.test/api/v1",
+                "https://b.upstream.test/api/v1"));
+        balancerProperties.setFailureThreshold(1);
+        balancerProperties.getHedging().setEnabled(false);
+        UpstreamLoadBalancer balancer = new UpstreamLoadBalancer("https://upstream.test/api/v1", balancerProperties,
+                8, new SimpleMeterRegistry(), url -> true);
+        List<URI> sent = new CopyOnWriteArrayList<>();
+        RestTemplate balanced = new RestTemplate((uri, httpMethod) -> {
+            sent.add(uri);
+            MockClientHttpRequest request = new MockClientHttpRequest(httpMethod, uri);
+            request.setResponse(new MockClientHttpResponse("ok".getBytes(StandardCharsets.UTF_8),
+                    sent.size() == 1 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK));
+            return request;
+        });
+        balanced.getInterceptors().add(new ResilienceInterceptor(properties, balancer));
+        try {
+            assertEquals("ok", balanced.getForObject(URL, String.class));
+        } finally {
+            balancer.shutdown();
+        }
+
+        assertEquals(2, sent.size());
+        assertEquals("/api/v1/employee/1", sent.get(1).getPath());
+        assertNotEquals("upstream.test", sent.get(1).getHost());
+        assertNotEquals(sent.get(0).getHost(), sent.get(1).getHost());
+    }
+
+    @Test
+    void testNonIdempotentServerErrorIsNotRetried() {
+        server.expect(ExpectedCount.once(), requestTo(URL))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.postForObject(URL, "body", String.class));
+        server.verify();
+    }
+
+    @Test
+    void testOpenCircuitFailsFastWithoutCallingUpstream() {
+        server.expect(ExpectedCount.times(3), requestTo(URL)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(URL, String.class));
+        assertThrows(UpstreamUnavailableException.class, () -> restTemplate.getForObject(URL, String.class));
+        server.verify();
+    }
+
+    @Test
+    void testHalfOpenTrialThatThrowsReturnsItsSlot() throws Exception {
+        properties = new UpstreamResilienceProperties();
+        properties.getRateLimit().setPermitsPerSecond(0);
+        properties.getRetry().setMaxAttempts(1);
+        properties.getCircuitBreaker().setFailureThreshold(1);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(20));
+        interceptor = new ResilienceInterceptor(properties);
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(interceptor);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        server.expect(requestTo(URL)).andRespond(request -> {
+            throw new IllegalStateException("broken trial");
+        });
+        server.expect(requestTo(URL)).andRespond(withSuccess("ok", MediaType.TEXT_PLAIN));
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(URL, String.class));
+        Thread.sleep(40);
+        assertThrows(IllegalStateException.class, () -> restTemplate.getForObject(URL, String.class));
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.getCircuitBreaker().getState());
+        Thread.sleep(40);
+
+        assertEquals("ok", restTemplate.getForObject(URL, String.class));
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.getCircuitBreaker().getState());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.rqchallenge.upstream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallersShareOneCall() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("employees", () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "payload";
+                })));
+            }
+            while (singleFlight.getCoalescedCount() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("payload", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getIssuedCount());
+        assertEquals(callers - 1, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testFailureIsRethrownAndKeyIsReleased() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("employees", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("ok", singleFlight.execute("employees", () -> "ok"));
+        assertEquals(2, singleFlight.getIssuedCount());
+    }
+
+    @Test
+    void testInterruptedFollowerStopsWaitingWhileTheLeaderCarriesOn() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("employees", () -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "payload";
+            }));
+            while (singleFlight.getInFlightCount() == 0) {
+                Thread.sleep(5);
+            }
+
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(ResourceAccessException.class, () -> singleFlight.execute("employees", () -> "own"));
+                assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+            release.countDown();
+
+            assertEquals("payload", leader.get(5, TimeUnit.SECONDS));
+            assertEquals(1, singleFlight.getIssuedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamLoadBalancerTest {
+
+    private static final String BASE_URL = "https://upstream.test/api/v1";
+    private static final String REPLICA_A = "https://a.upstream.test/api/v1";
+    private static final String REPLICA_B = "https://b.upstream.test/api/v1";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> hosts = new CopyOnWriteArrayList<>();
+    private UpstreamLoadBalancer balancer;
+
+    @AfterEach
+    void tearDown() {
+        balancer.shutdown();
+    }
+
+    @Test
+    void testCallsAreRewrittenToReplicasAndFailingOneIsEjected() throws IOException {
+        UpstreamBalancerProperties properties = properties();
+        properties.setFailureThreshold(3);
+        properties.setEjectionTime(Duration.ofMinutes(1));
+        properties.getHedging().setEnabled(false);
+        balancer = new UpstreamLoadBalancer(BASE_URL, properties, 8, registry, url -> true);
+        ClientHttpRequestExecution execution = (request, body) -> {
+            hosts.add(request.getURI().getHost());
+            assertEquals("/api/v1/employee/1", request.getURI().getPath());
+            HttpStatus status = "a.upstream.test".equals(request.getURI().getHost())
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+
+        for (int i = 0; i < 50; i++) {
+            balancer.intercept(get(), new byte[0], execution).close();
+        }
+
+        assertEquals(3, hosts.stream().filter("a.upstream.test"::equals).count());
+        assertEquals(0, registry.get("employee.upstream.endpoint.available").tag("endpoint", REPLICA_A)
+                .gauge().value());
+    }
+
+    @Test
+    void testSlowGetIsHedgedAndTheLoserAborted() throws Exception {
+        UpstreamBalancerProperties properties = properties();
+        properties.getHedging().setBudget(1);
+        balancer = new UpstreamLoadBalancer(BASE_URL, properties, 8, registry, url -> true);
+        AtomicBoolean slowNext = new AtomicBoolean();
+        CountDownLatch aborted = new CountDownLatch(1);
+        ClientHttpRequestExecution execution = (request, body) -> {
+            if (slowNext.getAndSet(false)) {
+                AbortableClientHttpRequestFactory.registerAbort(aborted::countDown);
+                await(aborted);
+                throw new IOException("Request aborted");
+            }
+            hosts.add(request.getURI().getHost());
+            return new MockClientHttpResponse("ok".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        };
+        warmUp(execution);
+        slowNext.set(true);
+
+        ClientHttpResponse response = balancer.intercept(get(), new byte[0], execution);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(aborted.await(1, TimeUnit.SECONDS));
+        assertEquals(1, registry.get("employee.upstream.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void testFailedPrimaryFallsBackToTheOtherReplicaWithoutWaitingOutTheDelay() throws Exception {
+        UpstreamBalancerProperties properties = properties();
+        properties.getHedging().setBudget(1);
+        properties.getHedging().setMinDelay(Duration.ofSeconds(10));
+        balancer = new UpstreamLoadBalancer(BASE_URL, properties, 8, registry, url -> true);
+        AtomicBoolean failNext = new AtomicBoolean();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            hosts.add(request.getURI().getHost());
+            HttpStatus status = failNext.getAndSet(false) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+        warmUp(execution);
+        failNext.set(true);
+        hosts.clear();
+
+        long start = System.nanoTime();
+        ClientHttpResponse response = balancer.intercept(get(), new byte[0], execution);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(2, hosts.stream().distinct().count());
+        assertEquals(1, registry.get("employee.upstream.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void testServerErrorIsReturnedWhenNeitherReplicaAnswers() throws Exception {
+        UpstreamBalancerProperties properties = properties();
+        properties.getHedging().setBudget(1);
+        balancer = new UpstreamLoadBalancer(BASE_URL, properties, 8, registry, url -> true);
+        AtomicBoolean failing = new AtomicBoolean();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            if (failing.get() && "a.upstream.test".equals(request.getURI().getHost())) {
+                throw new IOException("Connection reset");
+            }
+            HttpStatus status = failing.get() ? HttpStatus.BAD_GATEWAY : HttpStatus.OK;
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+        warmUp(execution);
+        failing.set(true);
+
+        ClientHttpResponse response = balancer.intercept(get(), new byte[0], execution);
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+    }
+
+    @Test
+    void testNoHedgeWithoutBudget() throws Exception {
+        UpstreamBalancerProperties properties = properties();
+        properties.getHedging().setBudget(0);
+        balancer = new UpstreamLoadBalancer(BASE_URL, properties, 8, registry, url -> true);
+        AtomicBoolean slowNext = new AtomicBoolean();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            if (slowNext.getAndSet(false)) {
+                sleep(200);
+            }
+            hosts.add(request.getURI().getHost());
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+        warmUp(execution);
+        slowNext.set(true);
+        hosts.clear();
+
+        balancer.intercept(get(), new byte[0], execution).close();
+
+        assertEquals(1, hosts.size());
+        assertEquals(1, registry.get("employee.upstream.hedges").tag("result", "over_budget").counter().count());
+        assertEquals(0, registry.get("employee.upstream.hedges").tag("result", "sent").counter().count());
+    }
+
+    private static UpstreamBalancerProperties properties() {
+        UpstreamBalancerProperties properties = new UpstreamBalancerProperties();
+        properties.setEndpoints(Arrays.asList(REPLICA_A, REPLICA_B));
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setMinDelay(Duration.ofMillis(20));
+        return properties;
+    }
+
+    // Enough fast calls for the route to have a latency percentile.
+    private void warmUp(ClientHttpRequestExecution execution) throws IOException {
+        for (int i = 0; i < LatencyWindow.MIN_SAMPLES; i++) {
+            balancer.intercept(get(), new byte[0], execution).close();
+        }
+    }
+
+    private static MockClientHttpRequest get() {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create(BASE_URL + "/employee/1"));
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
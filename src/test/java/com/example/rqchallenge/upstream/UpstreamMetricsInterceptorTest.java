@@ -0,0 +1,62 @@
+package com.example.rqchallenge.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class UpstreamMetricsInterceptorTest {
+
+    private static final String URL = "https://upstream.test/api/v1/employee/42";
+
+    private SimpleMeterRegistry registry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new UpstreamMetricsInterceptor(registry));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testSuccessIsTimedWithTemplatedUriAndBodySize() {
+        server.expect(requestTo(URL)).andRespond(withSuccess("payload", MediaType.TEXT_PLAIN));
+
+        assertEquals("payload", restTemplate.getForObject(URL, String.class));
+
+        assertEquals(1, registry.get("employee.upstream.requests")
+                .tags("method", "GET", "uri", "/api/v1/employee/{id}", "outcome", "2xx").timer().count());
+        assertEquals(7, registry.get("employee.upstream.response.size")
+                .tags("uri", "/api/v1/employee/{id}").summary().totalAmount());
+    }
+
+    @Test
+    void testThrottledCallHasItsOwnOutcome() {
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> restTemplate.getForObject(URL, String.class));
+
+        assertEquals(1, registry.get("employee.upstream.requests").tag("outcome", "429").timer().count());
+    }
+
+    @Test
+    void testOutcomeBuckets() {
+        assertEquals("2xx", UpstreamMetricsInterceptor.outcome(201));
+        assertEquals("4xx", UpstreamMetricsInterceptor.outcome(404));
+        assertEquals("429", UpstreamMetricsInterceptor.outcome(429));
+        assertEquals("5xx", UpstreamMetricsInterceptor.outcome(503));
+    }
+}
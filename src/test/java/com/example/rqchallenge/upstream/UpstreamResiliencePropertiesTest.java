@@ -0,0 +1,43 @@
+package com.example.rqchallenge.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamResiliencePropertiesTest {
+
+    @Test
+    void testDefaultsFitFanOutAndWritesUnderTheRateLimit() {
+        UpstreamApiProperties api = new UpstreamApiProperties();
+        UpstreamResilienceProperties.RateLimit rateLimit = new UpstreamResilienceProperties().getRateLimit();
+
+        assertEquals(api.getMaxFanOut(), rateLimit.maxConcurrentCallers(api.getMaxFanOut()));
+        assertEquals(rateLimit.getPermitsPerSecond(), rateLimit.pacedRate(api.getWritesPerSecond()));
+    }
+
+    @Test
+    void testRequestedSettingsAreCappedAtTheRateLimit() {
+        UpstreamResilienceProperties.RateLimit rateLimit = new UpstreamResilienceProperties.RateLimit();
+        rateLimit.setPermitsPerSecond(4);
+        rateLimit.setAcquireTimeout(Duration.ofMillis(500));
+
+        assertEquals(2, rateLimit.maxConcurrentCallers(8));
+        assertEquals(4, rateLimit.pacedRate(10));
+        assertEquals(3, rateLimit.pacedRate(3));
+
+        rateLimit.setAcquireTimeout(Duration.ZERO);
+        assertEquals(1, rateLimit.maxConcurrentCallers(8));
+    }
+
+    @Test
+    void testNothingIsCappedWithTheRateLimitOff() {
+        UpstreamResilienceProperties.RateLimit rateLimit = new UpstreamResilienceProperties.RateLimit();
+        rateLimit.setPermitsPerSecond(0);
+
+        assertEquals(8, rateLimit.maxConcurrentCallers(8));
+        assertEquals(0, rateLimit.pacedRate(0));
+        assertEquals(10, rateLimit.pacedRate(10));
+    }
+}